@@ -0,0 +1,359 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Generates a JsonModelBinder for every @JsonModel class. The generated binder follows the same
+// rules as JsonObjectBinder (transient fields are skipped, nulls are ignored, unknown keys are
+// ignored, generic fields are resolved against the Typedef being bound) but assigns fields
+// directly, so binding involves no reflection at all. Both construct() and read() are generated,
+// the latter assigning fields straight from the tokens without building a JsonValue tree. Binders are listed under
+// META-INF/services/sweetjson.JsonModelBinder, which SweetJson reads on startup.
+@SupportedAnnotationTypes("sweetjson.JsonModel")
+public class JsonModelProcessor extends AbstractProcessor
+{
+    private static final String SERVICE_FILE = "META-INF/services/sweetjson.JsonModelBinder";
+
+    private static final Map<TypeKind, String> JSON_VALUE_ACCESSORS = Map.of(
+            TypeKind.BOOLEAN, "as_bool",
+            TypeKind.BYTE, "as_byte",
+            TypeKind.CHAR, "as_char",
+            TypeKind.SHORT, "as_short",
+            TypeKind.INT, "as_int",
+            TypeKind.LONG, "as_long",
+            TypeKind.FLOAT, "as_float",
+            TypeKind.DOUBLE, "as_double");
+
+    // Same conversions as the reflective binders' token path (BindingMetadata.FieldBinding.read).
+    private static final Map<TypeKind, String> TOKEN_READERS = Map.of(
+            TypeKind.BOOLEAN, "reader.next_bool()",
+            TypeKind.BYTE, "(byte) (int) reader.next_number()",
+            TypeKind.CHAR, "(char) (int) reader.next_number()",
+            TypeKind.SHORT, "(short) (int) reader.next_number()",
+            TypeKind.INT, "(int) reader.next_number()",
+            TypeKind.LONG, "reader.next_long()",
+            TypeKind.FLOAT, "(float) reader.next_number()",
+            TypeKind.DOUBLE, "reader.next_number()");
+
+    private final List<String> m_generated = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion ()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process (final Set<? extends TypeElement> annotations, final RoundEnvironment round)
+    {
+        for (var annotation : annotations)
+        {
+            for (var element : round.getElementsAnnotatedWith(annotation))
+            {
+                if (element.getKind() != ElementKind.CLASS)
+                    error(element, "@JsonModel can only be applied to classes!");
+                else
+                    generate((TypeElement) element);
+            }
+        }
+        if (round.processingOver() && !m_generated.isEmpty())
+            write_service_file();
+        return true;
+    }
+
+    private void error (final Element element, final String message)
+    {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private boolean validate (final TypeElement model, final List<VariableElement> fields)
+    {
+        var modifiers = model.getModifiers();
+        boolean nested = model.getNestingKind() != NestingKind.TOP_LEVEL;
+        if (modifiers.contains(Modifier.ABSTRACT) || modifiers.contains(Modifier.PRIVATE)
+                || (nested && !modifiers.contains(Modifier.STATIC)))
+        {
+            error(model, "@JsonModel classes must be concrete, non-private and static if nested!");
+            return false;
+        }
+
+        boolean has_constructor = ElementFilter.constructorsIn(model.getEnclosedElements()).stream()
+                .anyMatch(constructor -> constructor.getParameters().isEmpty()
+                        && !constructor.getModifiers().contains(Modifier.PRIVATE));
+        if (!has_constructor)
+        {
+            error(model, "@JsonModel classes need a non-private no-arg constructor!");
+            return false;
+        }
+
+        boolean valid = true;
+        for (var field : fields)
+        {
+            if (field.getModifiers().contains(Modifier.PRIVATE) || field.getModifiers().contains(Modifier.FINAL))
+            {
+                error(field, "Fields of @JsonModel classes must not be private or final (mark it transient to skip it)!");
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    private static List<VariableElement> serializable_fields (final TypeElement model)
+    {
+        var fields = new ArrayList<VariableElement>();
+        for (var field : ElementFilter.fieldsIn(model.getEnclosedElements()))
+        {
+            var modifiers = field.getModifiers();
+            if (!modifiers.contains(Modifier.TRANSIENT) && !modifiers.contains(Modifier.STATIC))
+                fields.add(field);
+        }
+        return fields;
+    }
+
+    private String erasure (final TypeMirror type)
+    {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private static int type_parameter_index (final TypeElement model, final TypeVariable variable)
+    {
+        var parameters = model.getTypeParameters();
+        for (int i = 0; i < parameters.size(); i++)
+        {
+            if (parameters.get(i).getSimpleName().equals(variable.asElement().getSimpleName()))
+                return i;
+        }
+        throw new IllegalStateException("Unknown type variable `" + variable + "`!");
+    }
+
+    // Expression for the Typedef of a field or of one of its type arguments; sets dynamic[0] if it
+    // depends on the Typedef being bound.
+    private String typedef_expression (final TypeElement model, final TypeMirror type, final boolean[] dynamic)
+    {
+        switch (type.getKind())
+        {
+            case TYPEVAR:
+            {
+                dynamic[0] = true;
+                var variable = (TypeVariable) type;
+                return "type_arg(definition, " + type_parameter_index(model, variable) + ", "
+                        + erasure(variable) + ".class)";
+            }
+            case ARRAY:
+            {
+                var component = ((ArrayType) type).getComponentType();
+                var expression = typedef_expression(model, component, dynamic);
+                if (expression.startsWith("Typedef.wrap("))
+                    return "Typedef.wrap(" + erasure(type) + ".class)";
+                return expression + ".array_type()";
+            }
+            case WILDCARD:
+            {
+                var wildcard = (WildcardType) type;
+                var bound = wildcard.getSuperBound() != null ? wildcard.getSuperBound() : wildcard.getExtendsBound();
+                return bound == null ? "Typedef.wrap(java.lang.Object.class)" : typedef_expression(model, bound, dynamic);
+            }
+            case DECLARED:
+            {
+                var arguments = ((DeclaredType) type).getTypeArguments();
+                if (arguments.isEmpty())
+                    break;
+                var builder = new StringBuilder("Typedef.parameterized(").append(erasure(type)).append(".class");
+                for (var argument : arguments)
+                    builder.append(", ").append(typedef_expression(model, argument, dynamic));
+                return builder.append(")").toString();
+            }
+            default:
+                break;
+        }
+        return "Typedef.wrap(" + erasure(type) + ".class)";
+    }
+
+    private static String binder_name (final TypeElement model)
+    {
+        var name = new StringBuilder(model.getSimpleName());
+        for (var enclosing = model.getEnclosingElement(); enclosing instanceof TypeElement;
+             enclosing = enclosing.getEnclosingElement())
+            name.insert(0, ((TypeElement) enclosing).getSimpleName() + "_");
+        return name.append("_JsonBinder").toString();
+    }
+
+    private void generate (final TypeElement model)
+    {
+        var fields = serializable_fields(model);
+        if (!validate(model, fields))
+            return;
+
+        var package_name = processingEnv.getElementUtils().getPackageOf(model).getQualifiedName().toString();
+        var binder_name = binder_name(model);
+        var model_name = model.getQualifiedName().toString();
+        var qualified_name = package_name.isEmpty() ? binder_name : package_name + "." + binder_name;
+
+        var constants = new StringBuilder();
+        var cases = new StringBuilder();
+        var read_cases = new StringBuilder();
+        for (var field : fields)
+        {
+            var name = field.getSimpleName().toString();
+            var type = field.asType();
+            cases.append("                case \"").append(name).append("\":\n");
+            read_cases.append("                case \"").append(name).append("\":\n");
+            var accessor = JSON_VALUE_ACCESSORS.get(type.getKind());
+            if (accessor != null)
+            {
+                cases.append("                    model.").append(name).append(" = json.").append(accessor).append("();\n");
+                read_cases.append("                    model.").append(name).append(" = ")
+                        .append(TOKEN_READERS.get(type.getKind())).append(";\n");
+            } else
+            {
+                var dynamic = new boolean[1];
+                var typedef = typedef_expression(model, type, dynamic);
+                if (!dynamic[0])
+                {
+                    var constant = "TYPEDEF_" + name.toUpperCase();
+                    constants.append("    private static final Typedef<?> ").append(constant).append(" = ")
+                            .append(typedef).append(";\n");
+                    typedef = constant;
+                }
+                cases.append("                    model.").append(name).append(" = (").append(erasure(type))
+                        .append(") bind(").append(typedef).append(", json, bag);\n");
+                read_cases.append("                    model.").append(name).append(" = (").append(erasure(type))
+                        .append(") read_value(").append(typedef).append(", reader, bag);\n");
+            }
+            cases.append("                    break;\n");
+            read_cases.append("                    break;\n");
+        }
+
+        var source = new StringBuilder();
+        if (!package_name.isEmpty())
+            source.append("package ").append(package_name).append(";\n\n");
+        source.append("import sweetjson.Bag;\n")
+                .append("import sweetjson.JsonModelBinder;\n")
+                .append("import sweetjson.JsonTokenReader;\n")
+                .append("import sweetjson.JsonValue;\n")
+                .append("import sweetjson.SweetJson;\n")
+                .append("import sweetjson.Typedef;\n\n")
+                .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("public final class ").append(binder_name).append(" implements JsonModelBinder<")
+                .append(model_name).append(">\n{\n")
+                .append(constants).append(constants.length() > 0 ? "\n" : "")
+                .append("    private static Typedef<?> type_arg (final Typedef<?> definition, final int index, final Class<?> erasure)\n")
+                .append("    {\n")
+                .append("        return index < definition.type_args().length ? definition.type_arg_typedef(index) : Typedef.wrap(erasure);\n")
+                .append("    }\n\n")
+                .append("    private static Object bind (final Typedef<?> typedef, final JsonValue value, final Bag bag)\n")
+                .append("    {\n")
+                .append("        var definition = (Typedef<Object>) typedef;\n")
+                .append("        return SweetJson.get_binder(definition).construct(value, definition, bag);\n")
+                .append("    }\n\n")
+                .append("    private static Object read_value (final Typedef<?> typedef, final JsonTokenReader reader, final Bag bag)\n")
+                .append("    {\n")
+                .append("        var definition = (Typedef<Object>) typedef;\n")
+                .append("        return SweetJson.get_binder(definition).read(reader, definition, bag);\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public Class<").append(model_name).append("> model_class ()\n")
+                .append("    {\n")
+                .append("        return ").append(model_name).append(".class;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public ").append(model_name).append(" construct (final JsonValue value, final Typedef<")
+                .append(model_name).append("> definition, final Bag bag)\n")
+                .append("    {\n")
+                .append("        var model = new ").append(model_name).append("();\n")
+                .append("        for (var entry : value.as_map().entrySet())\n")
+                .append("        {\n")
+                .append("            var json = entry.getValue();\n")
+                .append("            if (json.is_null())\n")
+                .append("                continue;\n")
+                .append("            switch (entry.getKey())\n")
+                .append("            {\n")
+                .append(cases)
+                .append("            }\n")
+                .append("        }\n")
+                .append("        return model;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public ").append(model_name).append(" read (final JsonTokenReader reader, final Typedef<")
+                .append(model_name).append("> definition, final Bag bag)\n")
+                .append("    {\n")
+                .append("        reader.expect(JsonTokenReader.Token.START_OBJECT);\n")
+                .append("        var model = new ").append(model_name).append("();\n")
+                .append("        while (reader.next() == JsonTokenReader.Token.KEY)\n")
+                .append("        {\n")
+                .append("            var key = reader.string_value();\n")
+                .append("            if (reader.peek() == JsonTokenReader.Token.NULL)\n")
+                .append("            {\n")
+                .append("                reader.skip_value();\n")
+                .append("                continue;\n")
+                .append("            }\n")
+                .append("            switch (key)\n")
+                .append("            {\n")
+                .append(read_cases)
+                .append("                default:\n")
+                .append("                    reader.skip_value();\n")
+                .append("            }\n")
+                .append("        }\n")
+                .append("        return model;\n")
+                .append("    }\n")
+                .append("}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualified_name, model).openWriter())
+        {
+            writer.write(source.toString());
+            m_generated.add(qualified_name);
+        } catch (IOException ioe)
+        {
+            error(model, "Failed to write `" + qualified_name + "`: " + ioe.getMessage());
+        }
+    }
+
+    private void write_service_file ()
+    {
+        try (Writer writer = processingEnv.getFiler()
+                .createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE).openWriter())
+        {
+            for (var name : m_generated)
+                writer.write(name + "\n");
+        } catch (IOException ioe)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write " + SERVICE_FILE + ": " + ioe.getMessage());
+        }
+    }
+}
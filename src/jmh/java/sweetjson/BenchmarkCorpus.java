@@ -0,0 +1,371 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Documents for the benchmarks, generated locally with a fixed seed. The first three mimic the
+// usual JSON corpora: `twitter` (string heavy, escapes and non-ASCII text), `citm` (maps keyed by
+// ids, mostly integers) and `canada` (a GeoJSON polygon, nearly all doubles). The others stress
+// one dimension each: many small flat records, deeply nested objects and one very wide object.
+public enum BenchmarkCorpus
+{
+    TWITTER(Models.Twitter.class)
+    {
+        @Override
+        void generate (final StringBuilder out, final Random random)
+        {
+            out.append("{\"statuses\": [");
+            for (int i = 0; i < 1500; i++)
+            {
+                if (i > 0) out.append(", ");
+                long id = 505874924095815681L + i * 977L;
+                out.append("{\"created_at\": \"Sun Aug 31 00:29:15 +0000 2014\", \"id\": ").append(id)
+                        .append(", \"id_str\": \"").append(id).append("\", \"text\": \"");
+                for (int word = 0, words = 8 + random.nextInt(20); word < words; word++)
+                    out.append(word == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+                out.append("\", \"source\": \"<a href=\\\"https://mobile.example.com\\\" rel=\\\"nofollow\\\">Mobile</a>\"")
+                        .append(", \"truncated\": false, \"in_reply_to_status_id\": null, \"user\": {\"id\": ")
+                        .append(1186275104 + random.nextInt(1000000)).append(", \"name\": \"")
+                        .append(WORDS[random.nextInt(WORDS.length)]).append("\", \"screen_name\": \"user_").append(i)
+                        .append("\", \"location\": \"\\u6771\\u4eac\", \"description\": \"")
+                        .append(WORDS[random.nextInt(WORDS.length)]).append(' ').append(WORDS[random.nextInt(WORDS.length)])
+                        .append("\", \"followers_count\": ").append(random.nextInt(100000))
+                        .append(", \"verified\": ").append(random.nextInt(10) == 0)
+                        .append(", \"profile_image_url\": \"http:\\/\\/pbs.example.com\\/profile_images\\/").append(i)
+                        .append(".jpeg\"}, \"retweet_count\": ").append(random.nextInt(500))
+                        .append(", \"favorite_count\": ").append(random.nextInt(500))
+                        .append(", \"entities\": {\"hashtags\": [");
+                for (int tag = 0, tags = random.nextInt(3); tag < tags; tag++)
+                    out.append(tag == 0 ? "" : ", ").append("{\"text\": \"").append(WORDS[random.nextInt(WORDS.length)])
+                            .append("\", \"indices\": [").append(tag * 10).append(", ").append(tag * 10 + 6).append("]}");
+                out.append("], \"urls\": []}, \"lang\": \"ja\"}");
+            }
+            out.append("], \"search_metadata\": {\"completed_in\": 0.087, \"max_id\": 505874924095815681, ")
+                    .append("\"query\": \"%23%E4%B8%AD\", \"count\": 1500}}");
+        }
+    },
+    CITM(Models.Citm.class)
+    {
+        @Override
+        void generate (final StringBuilder out, final Random random)
+        {
+            out.append("{\"areaNames\": {");
+            for (int i = 0; i < 300; i++)
+                out.append(i == 0 ? "" : ", ").append('"').append(205705993 + i).append("\": \"Arri\\u00e8re-sc\\u00e8ne ")
+                        .append(i).append('"');
+            out.append("}, \"events\": {");
+            for (int i = 0; i < 2000; i++)
+            {
+                out.append(i == 0 ? "" : ", ").append('"').append(138586341 + i).append("\": {\"id\": ")
+                        .append(138586341 + i).append(", \"name\": \"").append(WORDS[random.nextInt(WORDS.length)])
+                        .append("\", \"subTopicIds\": [337184269, 337184283], \"topicIds\": [324846099, 107888604]")
+                        .append(", \"description\": null, \"logo\": null, \"subjectCode\": null}");
+            }
+            out.append("}, \"performances\": [");
+            for (int i = 0; i < 2500; i++)
+            {
+                out.append(i == 0 ? "" : ", ").append("{\"id\": ").append(339887544 + i).append(", \"eventId\": ")
+                        .append(138586341 + random.nextInt(2000)).append(", \"name\": null, \"prices\": [");
+                for (int price = 0, prices = 1 + random.nextInt(4); price < prices; price++)
+                    out.append(price == 0 ? "" : ", ").append("{\"amount\": ").append(9025 * (1 + random.nextInt(20)))
+                            .append(", \"audienceSubCategoryId\": 337100890, \"seatCategoryId\": ")
+                            .append(338937295 + price).append('}');
+                out.append("], \"seatCategories\": [{\"areas\": [{\"areaId\": ").append(205705993 + random.nextInt(300))
+                        .append(", \"blockIds\": []}], \"seatCategoryId\": 338937295}], \"start\": ")
+                        .append(1372701600000L + i * 86400000L).append(", \"venueCode\": \"PLEYEL_PLEYEL\"}");
+            }
+            out.append("]}");
+        }
+    },
+    CANADA(Models.Canada.class)
+    {
+        @Override
+        void generate (final StringBuilder out, final Random random)
+        {
+            out.append("{\"type\": \"FeatureCollection\", \"features\": [{\"type\": \"Feature\", ")
+                    .append("\"properties\": {\"name\": \"Canada\"}, \"geometry\": {\"type\": \"Polygon\", \"coordinates\": [");
+            for (int ring = 0; ring < 400; ring++)
+            {
+                out.append(ring == 0 ? "[" : ", [");
+                double x = -65.6 + random.nextDouble(), y = 43.4 + random.nextDouble();
+                for (int point = 0; point < 250; point++)
+                {
+                    x += random.nextGaussian() * 0.01;
+                    y += random.nextGaussian() * 0.01;
+                    out.append(point == 0 ? "[" : ", [").append(x).append(", ").append(y).append(']');
+                }
+                out.append(']');
+            }
+            out.append("]}}]}");
+        }
+    },
+    FLAT(Models.Flat[].class)
+    {
+        @Override
+        void generate (final StringBuilder out, final Random random)
+        {
+            out.append('[');
+            for (int i = 0; i < 10000; i++)
+                Models.flat_record(out.append(i == 0 ? "" : ", "), i, random);
+            out.append(']');
+        }
+    },
+    DEEP(Models.Node[].class)
+    {
+        @Override
+        void generate (final StringBuilder out, final Random random)
+        {
+            out.append('[');
+            for (int i = 0; i < 200; i++)
+            {
+                out.append(i == 0 ? "" : ", ");
+                for (int depth = 0; depth < 64; depth++)
+                    out.append("{\"depth\": ").append(depth).append(", \"name\": \"node-").append(depth)
+                            .append("\", \"weight\": ").append(random.nextDouble()).append(", \"child\": ");
+                out.append("null").append("}".repeat(64));
+            }
+            out.append(']');
+        }
+    },
+    WIDE(Map.class)
+    {
+        @Override
+        void generate (final StringBuilder out, final Random random)
+        {
+            out.append('{');
+            for (int i = 0; i < 25000; i++)
+                out.append(i == 0 ? "" : ", ").append("\"field_").append(i).append("\": ").append(random.nextInt());
+            out.append('}');
+        }
+
+        @Override
+        Typedef<?> typedef ()
+        {
+            return new Typedef<LinkedHashMap<String, Long>>() {};
+        }
+    };
+
+    private static final String[] WORDS = {
+            "@aym0566x", "\\u540d\\u524d:\\u524d\\u7530\\u3042\\u3086\\u307f", "RT", "#\\u4e2d\\u56fd", "json", "parser",
+            "line\\nbreak", "\\\"quoted\\\"", "caf\\u00e9", "\\ud83d\\ude00", "http:\\/\\/t.co\\/abc", "benchmark", "the",
+            "quick", "brown", "fox", "jumps", "over", "lazy", "dog", "\\u30d5\\u30a9\\u30ed\\u30fc", "tab\\there"
+    };
+
+    private final Class<?> m_model;
+
+    BenchmarkCorpus (final Class<?> model)
+    {
+        m_model = model;
+    }
+
+    abstract void generate (StringBuilder out, Random random);
+
+    String json ()
+    {
+        var out = new StringBuilder(1 << 20);
+        generate(out, new Random(42));
+        return out.toString();
+    }
+
+    Typedef<?> typedef ()
+    {
+        return Typedef.wrap(m_model);
+    }
+
+    // Models the documents bind to. Fields are named after the keys, as SweetJson requires.
+    @SuppressWarnings("unused")
+    static final class Models
+    {
+        static final class Twitter
+        {
+            List<Status> statuses;
+            SearchMetadata search_metadata;
+        }
+
+        static final class Status
+        {
+            String created_at;
+            long id;
+            String id_str;
+            String text;
+            String source;
+            boolean truncated;
+            Long in_reply_to_status_id;
+            User user;
+            int retweet_count;
+            int favorite_count;
+            Entities entities;
+            String lang;
+        }
+
+        static final class User
+        {
+            long id;
+            String name;
+            String screen_name;
+            String location;
+            String description;
+            int followers_count;
+            boolean verified;
+            String profile_image_url;
+        }
+
+        static final class Entities
+        {
+            List<Hashtag> hashtags;
+            List<String> urls;
+        }
+
+        static final class Hashtag
+        {
+            String text;
+            int[] indices;
+        }
+
+        static final class SearchMetadata
+        {
+            double completed_in;
+            long max_id;
+            String query;
+            int count;
+        }
+
+        static final class Citm
+        {
+            Map<String, String> areaNames;
+            Map<String, Event> events;
+            List<Performance> performances;
+        }
+
+        static final class Event
+        {
+            long id;
+            String name;
+            long[] subTopicIds;
+            long[] topicIds;
+            String description;
+            String logo;
+            String subjectCode;
+        }
+
+        static final class Performance
+        {
+            long id;
+            long eventId;
+            String name;
+            List<Price> prices;
+            List<SeatCategory> seatCategories;
+            long start;
+            String venueCode;
+        }
+
+        static final class Price
+        {
+            int amount;
+            long audienceSubCategoryId;
+            long seatCategoryId;
+        }
+
+        static final class SeatCategory
+        {
+            List<Area> areas;
+            long seatCategoryId;
+        }
+
+        static final class Area
+        {
+            long areaId;
+            long[] blockIds;
+        }
+
+        static final class Canada
+        {
+            String type;
+            List<Feature> features;
+        }
+
+        static final class Feature
+        {
+            String type;
+            Map<String, String> properties;
+            Geometry geometry;
+        }
+
+        static final class Geometry
+        {
+            String type;
+            double[][][] coordinates;
+        }
+
+        static final class Flat
+        {
+            long id;
+            int age;
+            double score;
+            boolean active;
+            String name;
+            String email;
+            double balance;
+            int rank;
+            float ratio;
+            short code;
+            boolean flag;
+            byte level;
+        }
+
+        static final class Node
+        {
+            int depth;
+            String name;
+            double weight;
+            Node child;
+        }
+
+        static final class Page<T>
+        {
+            int page;
+            int total;
+            List<T> items;
+        }
+
+        static StringBuilder flat_record (final StringBuilder out, final int i, final Random random)
+        {
+            return out.append("{\"id\": ").append(i).append(", \"age\": ").append(18 + random.nextInt(60))
+                    .append(", \"score\": ").append(random.nextDouble() * 100).append(", \"active\": ")
+                    .append(random.nextBoolean()).append(", \"name\": \"user-").append(i)
+                    .append("\", \"email\": \"user").append(i).append("@example.com\", \"balance\": ")
+                    .append(random.nextInt(1000000) / 100.0).append(", \"rank\": ").append(random.nextInt(1000))
+                    .append(", \"ratio\": ").append(random.nextFloat()).append(", \"code\": ").append(random.nextInt(30000))
+                    .append(", \"flag\": ").append(random.nextBoolean()).append(", \"level\": ").append(random.nextInt(100))
+                    .append('}');
+        }
+
+        // A page of flat records, bound through bind_to_generic.
+        static String page (final int records)
+        {
+            var out = new StringBuilder("{\"page\": 1, \"total\": ").append(records).append(", \"items\": [");
+            var random = new Random(42);
+            for (int i = 0; i < records; i++)
+                flat_record(out.append(i == 0 ? "" : ", "), i, random);
+            return out.append("]}").toString();
+        }
+    }
+}
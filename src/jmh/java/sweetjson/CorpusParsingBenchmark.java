@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sweetjson;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Parsing the generated corpus into JsonValue trees, from each kind of input.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CorpusParsingBenchmark
+{
+    @Param({"TWITTER", "CITM", "CANADA", "FLAT", "DEEP", "WIDE"})
+    private BenchmarkCorpus m_corpus;
+
+    private String m_json;
+    private byte[] m_json_bytes;
+    private Path m_file;
+
+    @Setup
+    public void setup () throws IOException
+    {
+        m_json = m_corpus.json();
+        m_json_bytes = m_json.getBytes(StandardCharsets.UTF_8);
+        m_file = Files.createTempFile("sweetjson-" + m_corpus.name().toLowerCase(), ".json");
+        Files.write(m_file, m_json_bytes);
+    }
+
+    @TearDown
+    public void tear_down () throws IOException
+    {
+        Files.deleteIfExists(m_file);
+    }
+
+    @Benchmark
+    public JsonValue parse_string ()
+    {
+        return JsonParser.parse(m_json);
+    }
+
+    @Benchmark
+    public JsonValue parse_bytes ()
+    {
+        return new JsonParser(m_json_bytes).parse();
+    }
+
+    @Benchmark
+    public JsonValue parse_indexed ()
+    {
+        return IndexedParser.parse(m_json_bytes);
+    }
+
+    // Only arrays are split; other documents measure the fallback to parse_bytes.
+    @Benchmark
+    public JsonValue parse_parallel ()
+    {
+        return JsonParser.parse_parallel(m_json_bytes);
+    }
+
+    @Benchmark
+    public JsonValue parse_path ()
+    {
+        return JsonParser.parse(m_file);
+    }
+}
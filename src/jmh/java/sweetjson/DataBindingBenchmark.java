@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sweetjson;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Binding the generated corpus to its models: from an already parsed tree, parsing and binding,
+// and straight from the tokens. The generic benchmarks bind a page of records through its type argument,
+// and the flat ones compare the reflective binder with a generated one on the same records.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataBindingBenchmark
+{
+    @State(Scope.Benchmark)
+    public static class Documents
+    {
+        @Param({"TWITTER", "CITM", "CANADA", "FLAT", "DEEP", "WIDE"})
+        private BenchmarkCorpus m_corpus;
+
+        private String m_json;
+        private JsonValue m_tree;
+        private Typedef<Object> m_typedef;
+
+        @SuppressWarnings("unchecked")
+        @Setup
+        public void setup ()
+        {
+            m_json = m_corpus.json();
+            m_tree = JsonParser.parse(m_json);
+            m_typedef = (Typedef<Object>) m_corpus.typedef();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Pages
+    {
+        private String m_json;
+        private JsonValue m_tree;
+        private final Typedef<BenchmarkCorpus.Models.Page<BenchmarkCorpus.Models.Flat>> m_typedef =
+                new Typedef<BenchmarkCorpus.Models.Page<BenchmarkCorpus.Models.Flat>>() {};
+
+        @Setup
+        public void setup ()
+        {
+            m_json = BenchmarkCorpus.Models.page(10000);
+            m_tree = JsonParser.parse(m_json);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class FlatRecords
+    {
+        @Param({"REFLECTIVE", "GENERATED"})
+        private String m_binder;
+
+        private String m_json;
+        private JsonValue m_tree;
+        private final Typedef<BenchmarkCorpus.Models.Flat[]> m_typedef = Typedef.wrap(BenchmarkCorpus.Models.Flat[].class);
+
+        // Every benchmark runs in its own fork, so registering the generated binder here leaves the
+        // other benchmarks on the reflective one.
+        @Setup
+        public void setup ()
+        {
+            if (m_binder.equals("GENERATED"))
+                SweetJson.register_generated_binder(BenchmarkCorpus.Models.Flat.class);
+            m_json = BenchmarkCorpus.FLAT.json();
+            m_tree = JsonParser.parse(m_json);
+        }
+    }
+
+    @Benchmark
+    public Object bind_tree (final Documents documents)
+    {
+        return documents.m_tree.bind_to(documents.m_typedef);
+    }
+
+    @Benchmark
+    public Object parse_and_bind (final Documents documents)
+    {
+        return JsonParser.parse(documents.m_json).bind_to(documents.m_typedef);
+    }
+
+    @Benchmark
+    public Object read_tokens (final Documents documents)
+    {
+        return SweetJson.read(documents.m_json, documents.m_typedef);
+    }
+
+    @Benchmark
+    public Object bind_generic (final Pages pages)
+    {
+        return pages.m_tree.bind_to_generic(BenchmarkCorpus.Models.Page.class, BenchmarkCorpus.Models.Flat.class);
+    }
+
+    @Benchmark
+    public Object read_generic (final Pages pages)
+    {
+        return SweetJson.read(pages.m_json, pages.m_typedef);
+    }
+
+    @Benchmark
+    public Object bind_flat (final FlatRecords records)
+    {
+        return records.m_tree.bind_to(records.m_typedef);
+    }
+
+    @Benchmark
+    public Object read_flat (final FlatRecords records)
+    {
+        return SweetJson.read(records.m_json, records.m_typedef);
+    }
+}
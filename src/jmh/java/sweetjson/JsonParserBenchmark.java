@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonParserBenchmark
+{
+    @Param({"1000", "100000"})
+    private int m_records;
+
+    private String m_json;
+    private byte[] m_json_bytes;
+    private byte[] m_numbers_bytes;
+
+    @Setup
+    public void setup ()
+    {
+        var builder = new StringBuilder("[");
+        for (int i = 0; i < m_records; i++)
+        {
+            if (i > 0) builder.append(",\n");
+            builder.append("{\"id\": ").append(i)
+                    .append(", \"name\": \"record-").append(i).append("\"")
+                    .append(", \"score\": ").append(i * 0.25)
+                    .append(", \"active\": ").append(i % 2 == 0)
+                    .append(", \"note\": \"line\\nbreak \\\"quoted\\\" \\u00e9\"")
+                    .append(", \"tags\": [\"a\", \"b\", \"c\"], \"parent\": null}");
+        }
+        m_json = builder.append("]").toString();
+        m_json_bytes = m_json.getBytes(StandardCharsets.UTF_8);
+
+        // A metrics-like payload: timestamps and readings, almost nothing but numbers.
+        var random = new java.util.Random(42);
+        var numbers = new StringBuilder("[");
+        for (int i = 0; i < m_records; i++)
+        {
+            if (i > 0) numbers.append(",");
+            numbers.append("[").append(1600000000000L + i * 1000L).append(",").append(random.nextDouble() * 100)
+                    .append(",").append(random.nextInt(1000)).append(",").append(-random.nextGaussian()).append("]");
+        }
+        m_numbers_bytes = numbers.append("]").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public JsonValue buffer_indexed ()
+    {
+        return JsonParser.parse(m_json);
+    }
+
+    @Benchmark
+    public JsonValue utf8_bytes ()
+    {
+        return JsonParser.parse(m_json_bytes);
+    }
+
+    private static String read_a_few_fields (final JsonValue value)
+    {
+        var records = value.as_list();
+        var record = records.get(records.size() / 2).as_map();
+        return record.get("name").as_string() + record.get("score").as_double() + record.get("active").as_bool();
+    }
+
+    @Benchmark
+    public String eager_partial_access ()
+    {
+        return read_a_few_fields(JsonParser.parse(m_json_bytes));
+    }
+
+    @Benchmark
+    public String lazy_partial_access ()
+    {
+        return read_a_few_fields(JsonParser.parse_lazy(m_json_bytes));
+    }
+
+    @Benchmark
+    public JsonValue numeric_array ()
+    {
+        return JsonParser.parse(m_numbers_bytes);
+    }
+
+    @Benchmark
+    public JsonValue buffered_reader ()
+    {
+        return LegacyJsonParser.parse(m_json);
+    }
+}
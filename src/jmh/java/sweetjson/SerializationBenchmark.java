@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sweetjson;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+// Writing the generated corpus back out, from its bound models and from JsonValue trees.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark
+{
+    @Param({"TWITTER", "CITM", "CANADA", "FLAT", "DEEP", "WIDE"})
+    private BenchmarkCorpus m_corpus;
+
+    private final OutputStream m_sink = OutputStream.nullOutputStream();
+    private Typedef<Object> m_typedef;
+    private Object m_model;
+    private JsonValue m_tree;
+
+    @SuppressWarnings("unchecked")
+    @Setup
+    public void setup ()
+    {
+        m_typedef = (Typedef<Object>) m_corpus.typedef();
+        m_tree = JsonParser.parse(m_corpus.json());
+        m_model = m_tree.bind_to(m_typedef);
+    }
+
+    @Benchmark
+    public void write_model ()
+    {
+        SweetJson.write(m_model, m_typedef, m_sink);
+    }
+
+    @Benchmark
+    public void write_tree ()
+    {
+        SweetJson.write(m_tree, m_sink);
+    }
+}
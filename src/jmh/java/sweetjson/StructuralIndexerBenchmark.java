@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package sweetjson;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Stage 1 of the indexed parser on its own, with and without the Vector API. The `bytes` counter
+// reports the input consumed per second, for comparison with the figures quoted for simdjson.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StructuralIndexerBenchmark
+{
+    @Param({"TWITTER", "CITM", "CANADA", "FLAT", "DEEP", "WIDE"})
+    private BenchmarkCorpus m_corpus;
+
+    @Param({"vector", "scalar"})
+    private String m_indexer;
+
+    private byte[] m_json;
+    private StructuralIndexer m_implementation;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Throughput
+    {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset ()
+        {
+            bytes = 0;
+        }
+    }
+
+    @Setup
+    public void setup ()
+    {
+        m_json = m_corpus.json().getBytes(StandardCharsets.UTF_8);
+        m_implementation = m_indexer.equals("vector") ? new VectorStructuralIndexer() : new StructuralIndexer();
+    }
+
+    @Benchmark
+    public int[] index (final Throughput throughput)
+    {
+        throughput.bytes += m_json.length;
+        return m_implementation.index(m_json);
+    }
+}
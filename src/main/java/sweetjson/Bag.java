@@ -19,10 +19,13 @@ package sweetjson;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 
 public class Bag
 {
     private static final String TYPE_ARGUMENT_KEY = "__type_argument__";
+    private static final String PARALLEL_POOL_KEY = "__parallel_pool__";
+    private static final String PARALLEL_THRESHOLD_KEY = "__parallel_threshold__";
 
     private final Map<String, Object> m_container = new HashMap<>();
 
@@ -63,6 +66,23 @@ public class Bag
         return Bag.empty().put(TYPE_ARGUMENT_KEY, args);
     }
 
+    // Arrays and collections of at least `threshold` elements are bound on `pool`. Every element
+    // is bound with this same bag, so binders running in parallel must only read from it.
+    public static Bag put_parallel_binding (final ForkJoinPool pool, final int threshold)
+    {
+        return Bag.empty().put(PARALLEL_POOL_KEY, Objects.requireNonNull(pool)).put(PARALLEL_THRESHOLD_KEY, threshold);
+    }
+
+    ForkJoinPool parallel_pool ()
+    {
+        return (ForkJoinPool) peek(PARALLEL_POOL_KEY);
+    }
+
+    int parallel_threshold ()
+    {
+        return (Integer) peek(PARALLEL_THRESHOLD_KEY);
+    }
+
     public static Bag empty ()
     {
         return new Bag();
@@ -0,0 +1,562 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Emits a GeneratedBinder subclass for a model class and defines it as a hidden nestmate of
+// the model, which lets it write private fields with plain putfield instructions.
+//
+// The generated class looks like this, with one case per writable field:
+//
+//     final class Model$$SweetJsonBinder extends GeneratedBinder {
+//         Object create () { return new Model(); }
+//         boolean bind_field (Object model, String key, JsonValue value, JsonBinder[] binders,
+//                             Typedef[] typedefs, Bag bag) {
+//             int hash = key.hashCode();
+//             switch ((hash ^ hash >>> 16) & MASK) {
+//                 case 3:
+//                     if (key.equals("count")) {
+//                         if (binders[0] == null) { ((Model) model).count = value.as_int(); return true; }
+//                         ((Model) model).count = ((Integer) binders[0].construct(value, typedefs[0], bag)).intValue();
+//                         return true;
+//                     }
+//                     if (key.equals("name")) {
+//                         ((Model) model).name = (String) binders[1].construct(value, typedefs[1], bag);
+//                         return true;
+//                     }
+//                     return false;
+//                 ...
+//             }
+//             return false;
+//         }
+//         boolean read_field (...) { the same, taking the value from a JsonTokenReader }
+//     }
+//
+// Primitive fields are written straight from the value unless a custom binder is registered for
+// their type, which GeneratedBinder signals with a null binder. Static and final fields can't be
+// written this way; GeneratedBinder leaves those to the reflective field binding.
+final class BinderGenerator
+{
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+    private static final int ACC_SYNTHETIC = 0x1000;
+
+    private static final int ICONST_0 = 0x03;
+    private static final int ICONST_1 = 0x04;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC_W = 0x13;
+    private static final int ALOAD = 0x19;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int ALOAD_2 = 0x2c;
+    private static final int ALOAD_3 = 0x2d;
+    private static final int AALOAD = 0x32;
+    private static final int DUP = 0x59;
+    private static final int IAND = 0x7e;
+    private static final int IUSHR = 0x7c;
+    private static final int IXOR = 0x82;
+    private static final int D2I = 0x8e;
+    private static final int D2F = 0x90;
+    private static final int I2B = 0x91;
+    private static final int I2C = 0x92;
+    private static final int I2S = 0x93;
+    private static final int IFEQ = 0x99;
+    private static final int TABLESWITCH = 0xaa;
+    private static final int IRETURN = 0xac;
+    private static final int ARETURN = 0xb0;
+    private static final int RETURN = 0xb1;
+    private static final int PUTFIELD = 0xb5;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKEINTERFACE = 0xb9;
+    private static final int NEW = 0xbb;
+    private static final int CHECKCAST = 0xc0;
+    private static final int IFNONNULL = 0xc7;
+
+    // Locals of bind_field and read_field.
+    private static final int MODEL = 1;
+    private static final int BINDERS = 4;
+    private static final int TYPEDEFS = 5;
+    private static final int BAG = 6;
+
+    private static final String SUPER_NAME = "sweetjson/GeneratedBinder";
+    private static final String JSON_VALUE = "sweetjson/JsonValue";
+    private static final String TOKEN_READER = "sweetjson/JsonTokenReader";
+    private static final String JSON_BINDER = "sweetjson/JsonBinder";
+    private static final String STRING = "java/lang/String";
+    private static final String FIELD_ARGUMENTS = "[Lsweetjson/JsonBinder;[Lsweetjson/Typedef;Lsweetjson/Bag;)Z";
+
+    private static final Map<Class<?>, String> JSON_VALUE_ACCESSORS = Map.of(
+            boolean.class, "as_bool",
+            byte.class, "as_byte",
+            char.class, "as_char",
+            short.class, "as_short",
+            int.class, "as_int",
+            long.class, "as_long",
+            float.class, "as_float",
+            double.class, "as_double");
+
+    private static final Map<Class<?>, Class<?>> WRAPPERS = Map.of(
+            boolean.class, Boolean.class,
+            byte.class, Byte.class,
+            char.class, Character.class,
+            short.class, Short.class,
+            int.class, Integer.class,
+            long.class, Long.class,
+            float.class, Float.class,
+            double.class, Double.class);
+
+    private static final class ConstantPool
+    {
+        private final ByteArrayOutputStream m_bytes = new ByteArrayOutputStream();
+        private final DataOutputStream m_out = new DataOutputStream(m_bytes);
+        private final Map<String, Integer> m_entries = new HashMap<>();
+        private int m_count = 1;
+
+        private int entry (final String key, final int tag, final int first, final int second) throws IOException
+        {
+            var index = m_entries.get(key);
+            if (index != null)
+                return index;
+            m_out.writeByte(tag);
+            m_out.writeShort(first);
+            if (second >= 0)
+                m_out.writeShort(second);
+            m_entries.put(key, m_count);
+            return m_count++;
+        }
+
+        int utf8 (final String text) throws IOException
+        {
+            var index = m_entries.get("U" + text);
+            if (index != null)
+                return index;
+            m_out.writeByte(1);
+            m_out.writeUTF(text);
+            m_entries.put("U" + text, m_count);
+            return m_count++;
+        }
+
+        int string (final String text) throws IOException
+        {
+            return entry("S" + text, 8, utf8(text), -1);
+        }
+
+        int klass (final String internal_name) throws IOException
+        {
+            return entry("C" + internal_name, 7, utf8(internal_name), -1);
+        }
+
+        private int name_and_type (final String name, final String descriptor) throws IOException
+        {
+            return entry("N" + name + ":" + descriptor, 12, utf8(name), utf8(descriptor));
+        }
+
+        int field (final String owner, final String name, final String descriptor) throws IOException
+        {
+            return entry("F" + owner + "." + name + ":" + descriptor, 9, klass(owner), name_and_type(name, descriptor));
+        }
+
+        int method (final String owner, final String name, final String descriptor) throws IOException
+        {
+            return entry("M" + owner + "." + name + ":" + descriptor, 10, klass(owner), name_and_type(name, descriptor));
+        }
+
+        int interface_method (final String owner, final String name, final String descriptor) throws IOException
+        {
+            return entry("I" + owner + "." + name + ":" + descriptor, 11, klass(owner), name_and_type(name, descriptor));
+        }
+    }
+
+    private static final class Code
+    {
+        private byte[] m_bytes = new byte[256];
+        private int m_length = 0;
+        // Offsets that need a stack map frame; all of ours are identical to the method's entry frame.
+        final TreeSet<Integer> frames = new TreeSet<>();
+
+        Code op (final int opcode)
+        {
+            if (m_length == m_bytes.length)
+                m_bytes = Arrays.copyOf(m_bytes, m_length * 2);
+            m_bytes[m_length++] = (byte) opcode;
+            return this;
+        }
+
+        Code u2 (final int value)
+        {
+            return op(value >>> 8).op(value);
+        }
+
+        Code u4 (final int value)
+        {
+            return u2(value >>> 16).u2(value & 0xFFFF);
+        }
+
+        int position ()
+        {
+            return m_length;
+        }
+
+        int mark_frame ()
+        {
+            frames.add(m_length);
+            return m_length;
+        }
+
+        // Emits a branch whose target is set by land().
+        int branch (final int opcode)
+        {
+            int position = m_length;
+            op(opcode).u2(0);
+            return position;
+        }
+
+        void land (final int branch)
+        {
+            int offset = mark_frame() - branch;
+            m_bytes[branch + 1] = (byte) (offset >>> 8);
+            m_bytes[branch + 2] = (byte) offset;
+        }
+
+        void patch4 (final int position, final int value)
+        {
+            m_bytes[position] = (byte) (value >>> 24);
+            m_bytes[position + 1] = (byte) (value >>> 16);
+            m_bytes[position + 2] = (byte) (value >>> 8);
+            m_bytes[position + 3] = (byte) value;
+        }
+
+        byte[] bytes ()
+        {
+            return Arrays.copyOf(m_bytes, m_length);
+        }
+    }
+
+    private static String internal_name (final Class<?> klass)
+    {
+        return klass.getName().replace('.', '/');
+    }
+
+    private static String descriptor (final Class<?> klass)
+    {
+        if (klass.isPrimitive())
+        {
+            if (klass == boolean.class) return "Z";
+            if (klass == byte.class) return "B";
+            if (klass == char.class) return "C";
+            if (klass == short.class) return "S";
+            if (klass == int.class) return "I";
+            if (klass == long.class) return "J";
+            if (klass == float.class) return "F";
+            if (klass == double.class) return "D";
+            throw new RuntimeException("Unexpected primitive `" + klass + "`!");
+        }
+        return klass.isArray() ? internal_name(klass) : "L" + internal_name(klass) + ";";
+    }
+
+    private static void write_method (final DataOutputStream out, final ConstantPool pool, final String name,
+                                      final String descriptor, final int max_stack, final int max_locals,
+                                      final Code code) throws IOException
+    {
+        var body = code.bytes();
+        var frames = new ByteArrayOutputStream();
+        int previous = -1;
+        for (int offset : code.frames)
+        {
+            int delta = offset - previous - 1;
+            if (delta < 64)
+                frames.write(delta); // same_frame
+            else
+            {
+                frames.write(251); // same_frame_extended
+                frames.write(delta >>> 8);
+                frames.write(delta);
+            }
+            previous = offset;
+        }
+
+        out.writeShort(ACC_PUBLIC);
+        out.writeShort(pool.utf8(name));
+        out.writeShort(pool.utf8(descriptor));
+        out.writeShort(1);
+        out.writeShort(pool.utf8("Code"));
+        int stack_map_length = code.frames.isEmpty() ? 0 : 8 + frames.size();
+        out.writeInt(12 + body.length + stack_map_length);
+        out.writeShort(max_stack);
+        out.writeShort(max_locals);
+        out.writeInt(body.length);
+        out.write(body);
+        out.writeShort(0); // exception table
+        if (code.frames.isEmpty())
+            out.writeShort(0);
+        else
+        {
+            out.writeShort(1);
+            out.writeShort(pool.utf8("StackMapTable"));
+            out.writeInt(2 + frames.size());
+            out.writeShort(code.frames.size());
+            out.write(frames.toByteArray());
+        }
+    }
+
+    private interface FieldEmitter
+    {
+        // Emits the code that binds field `slot` once its key has matched; it has to end in a return.
+        void emit (Code code, Field field, int slot) throws IOException;
+    }
+
+    // Dispatches on the key in local 2: its spread hash picks a bucket through a tableswitch, and the
+    // bucket compares the key with each of its field names. Unknown keys return false.
+    private static Code switch_on_key (final ConstantPool pool, final List<Field> fields, final FieldEmitter emitter)
+            throws IOException
+    {
+        var code = new Code();
+        if (fields.isEmpty())
+            return code.op(ICONST_0).op(IRETURN);
+
+        // At least twice as many buckets as fields keeps most of them down to a single comparison.
+        int size = Integer.highestOneBit(fields.size()) * 4;
+        var buckets = new ArrayList<List<Integer>>();
+        for (int i = 0; i < size; i++)
+            buckets.add(new ArrayList<>());
+        for (int i = 0; i < fields.size(); i++)
+        {
+            int hash = fields.get(i).getName().hashCode();
+            buckets.get((hash ^ hash >>> 16) & (size - 1)).add(i);
+        }
+
+        code.op(ALOAD_2).op(INVOKEVIRTUAL).u2(pool.method(STRING, "hashCode", "()I"))
+                .op(DUP).op(BIPUSH).op(16).op(IUSHR).op(IXOR)
+                .op(SIPUSH).u2(size - 1).op(IAND);
+        int switch_position = code.position();
+        code.op(TABLESWITCH);
+        while (code.position() % 4 != 0)
+            code.op(0);
+        int table_position = code.position();
+        code.u4(0).u4(0).u4(size - 1);
+        for (int i = 0; i < size; i++)
+            code.u4(0);
+
+        var targets = new int[size];
+        for (int bucket = 0; bucket < size; bucket++)
+        {
+            if (buckets.get(bucket).isEmpty())
+            {
+                targets[bucket] = -1;
+                continue;
+            }
+            targets[bucket] = code.mark_frame();
+            for (int slot : buckets.get(bucket))
+            {
+                var field = fields.get(slot);
+                code.op(ALOAD_2).op(LDC_W).u2(pool.string(field.getName()))
+                        .op(INVOKEVIRTUAL).u2(pool.method(STRING, "equals", "(Ljava/lang/Object;)Z"));
+                int miss = code.branch(IFEQ);
+                emitter.emit(code, field, slot);
+                code.land(miss);
+            }
+            code.op(ICONST_0).op(IRETURN);
+        }
+        int default_target = code.mark_frame();
+        code.op(ICONST_0).op(IRETURN);
+
+        code.patch4(table_position, default_target - switch_position);
+        for (int i = 0; i < size; i++)
+        {
+            int target = targets[i] < 0 ? default_target : targets[i];
+            code.patch4(table_position + 12 + i * 4, target - switch_position);
+        }
+        return code;
+    }
+
+    // Pushes binders[slot], leaving typedefs[slot] and the bag to the caller.
+    private static Code load_binder (final Code code, final int slot)
+    {
+        return code.op(ALOAD).op(BINDERS).op(SIPUSH).u2(slot).op(AALOAD);
+    }
+
+    private static Code load_typedef_and_bag (final Code code, final int slot)
+    {
+        return code.op(ALOAD).op(TYPEDEFS).op(SIPUSH).u2(slot).op(AALOAD).op(ALOAD).op(BAG);
+    }
+
+    // Stores the Object a binder returned into the field, unboxing primitives.
+    private static void store_object (final Code code, final ConstantPool pool, final String owner, final Field field)
+            throws IOException
+    {
+        var type = field.getType();
+        if (type.isPrimitive())
+        {
+            var wrapper = internal_name(WRAPPERS.get(type));
+            code.op(CHECKCAST).u2(pool.klass(wrapper))
+                    .op(INVOKEVIRTUAL).u2(pool.method(wrapper, type.getName() + "Value", "()" + descriptor(type)));
+        } else if (type != Object.class)
+            code.op(CHECKCAST).u2(pool.klass(internal_name(type)));
+        code.op(PUTFIELD).u2(pool.field(owner, field.getName(), descriptor(type))).op(ICONST_1).op(IRETURN);
+    }
+
+    // Reads a primitive off the token reader in local 3, converted to the field's type.
+    private static void read_primitive (final Code code, final ConstantPool pool, final Class<?> type) throws IOException
+    {
+        code.op(ALOAD_3);
+        if (type == boolean.class)
+            code.op(INVOKEVIRTUAL).u2(pool.method(TOKEN_READER, "next_bool", "()Z"));
+        else if (type == long.class)
+            code.op(INVOKEVIRTUAL).u2(pool.method(TOKEN_READER, "next_long", "()J"));
+        else
+        {
+            code.op(INVOKEVIRTUAL).u2(pool.method(TOKEN_READER, "next_number", "()D"));
+            if (type == float.class)
+                code.op(D2F);
+            else if (type != double.class)
+            {
+                code.op(D2I);
+                if (type == byte.class)
+                    code.op(I2B);
+                else if (type == char.class)
+                    code.op(I2C);
+                else if (type == short.class)
+                    code.op(I2S);
+            }
+        }
+    }
+
+    private static byte[] emit (final Class<?> klass, final List<Field> fields) throws IOException
+    {
+        var pool = new ConstantPool();
+        var owner = internal_name(klass);
+        int this_class = pool.klass(owner + "$$SweetJsonBinder");
+        int super_class = pool.klass(SUPER_NAME);
+
+        var methods = new ByteArrayOutputStream();
+        var out = new DataOutputStream(methods);
+
+        var init = new Code().op(ALOAD_0).op(INVOKESPECIAL).u2(pool.method(SUPER_NAME, "<init>", "()V")).op(RETURN);
+        write_method(out, pool, "<init>", "()V", 1, 1, init);
+
+        var create = new Code().op(NEW).u2(pool.klass(owner)).op(DUP)
+                .op(INVOKESPECIAL).u2(pool.method(owner, "<init>", "()V")).op(ARETURN);
+        write_method(out, pool, "create", "()Ljava/lang/Object;", 2, 1, create);
+
+        var bind_field = switch_on_key(pool, fields, (code, field, slot) -> {
+            var type = field.getType();
+            if (type.isPrimitive())
+            {
+                load_binder(code, slot);
+                int boxed = code.branch(IFNONNULL);
+                code.op(ALOAD_1).op(CHECKCAST).u2(pool.klass(owner)).op(ALOAD_3)
+                        .op(INVOKEVIRTUAL).u2(pool.method(JSON_VALUE, JSON_VALUE_ACCESSORS.get(type), "()" + descriptor(type)))
+                        .op(PUTFIELD).u2(pool.field(owner, field.getName(), descriptor(type)))
+                        .op(ICONST_1).op(IRETURN);
+                code.land(boxed);
+            }
+            code.op(ALOAD_1).op(CHECKCAST).u2(pool.klass(owner));
+            load_typedef_and_bag(load_binder(code, slot).op(ALOAD_3), slot)
+                    .op(INVOKEINTERFACE).u2(pool.interface_method(JSON_BINDER, "construct",
+                            "(L" + JSON_VALUE + ";Lsweetjson/Typedef;Lsweetjson/Bag;)Ljava/lang/Object;")).op(4).op(0);
+            store_object(code, pool, owner, field);
+        });
+        write_method(out, pool, "bind_field", "(Ljava/lang/Object;L" + STRING + ";L" + JSON_VALUE + ";" + FIELD_ARGUMENTS,
+                6, 7, bind_field);
+
+        var read_field = switch_on_key(pool, fields, (code, field, slot) -> {
+            var type = field.getType();
+            if (type.isPrimitive())
+            {
+                load_binder(code, slot);
+                int boxed = code.branch(IFNONNULL);
+                code.op(ALOAD_1).op(CHECKCAST).u2(pool.klass(owner));
+                read_primitive(code, pool, type);
+                code.op(PUTFIELD).u2(pool.field(owner, field.getName(), descriptor(type))).op(ICONST_1).op(IRETURN);
+                code.land(boxed);
+            }
+            code.op(ALOAD_1).op(CHECKCAST).u2(pool.klass(owner));
+            load_typedef_and_bag(load_binder(code, slot).op(ALOAD_3), slot)
+                    .op(INVOKEINTERFACE).u2(pool.interface_method(JSON_BINDER, "read",
+                            "(L" + TOKEN_READER + ";Lsweetjson/Typedef;Lsweetjson/Bag;)Ljava/lang/Object;")).op(4).op(0);
+            store_object(code, pool, owner, field);
+        });
+        write_method(out, pool, "read_field", "(Ljava/lang/Object;L" + STRING + ";L" + TOKEN_READER + ";" + FIELD_ARGUMENTS,
+                6, 7, read_field);
+
+        var bytes = new ByteArrayOutputStream();
+        var file = new DataOutputStream(bytes);
+        file.writeInt(0xCAFEBABE);
+        file.writeShort(0);
+        file.writeShort(59); // Java 15, the first release with hidden classes
+        file.writeShort(pool.m_count);
+        pool.m_bytes.writeTo(file);
+        file.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC);
+        file.writeShort(this_class);
+        file.writeShort(super_class);
+        file.writeShort(0); // interfaces
+        file.writeShort(0); // fields
+        file.writeShort(4); // methods
+        methods.writeTo(file);
+        file.writeShort(0); // attributes
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> GeneratedBinder<T> generate (final Class<T> klass)
+    {
+        int modifiers = klass.getModifiers();
+        if (klass.isPrimitive() || klass.isArray() || Modifier.isInterface(modifiers) || Modifier.isAbstract(modifiers))
+            throw new RuntimeException("Cannot generate a binder for `" + klass.getName() + "`!");
+
+        var fields = new ArrayList<>(JsonUtils.get_serializable_fields(klass).values());
+        fields.removeIf(field -> Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers()));
+        fields.sort(Comparator.comparing(Field::getName));
+        var names = new String[fields.size()];
+        for (int i = 0; i < fields.size(); i++)
+            names[i] = fields.get(i).getName();
+
+        try
+        {
+            klass.getDeclaredConstructor();
+            var lookup = MethodHandles.privateLookupIn(klass, MethodHandles.lookup())
+                    .defineHiddenClass(emit(klass, fields), true, MethodHandles.Lookup.ClassOption.NESTMATE);
+            var constructor = lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class));
+            var binder = (GeneratedBinder<T>) constructor.invoke();
+            binder.initialize(names);
+            return binder;
+        } catch (RuntimeException | Error exception)
+        {
+            throw exception;
+        } catch (Throwable throwable)
+        {
+            throw new RuntimeException(throwable);
+        }
+    }
+}
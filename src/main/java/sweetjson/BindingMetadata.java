@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Everything JsonObjectBinder and JsonObjectSerializer need to know about a model type, resolved
+// once instead of on every object: the serializable fields, their typedefs and the binders and
+// serializers chosen for them.
+// Entries are keyed on the class (through ClassValue, so unloaded classes aren't pinned) and
+// then on the resolved type, since its type arguments change how generic fields resolve.
+// Registering a binder bumps SweetJson's registry version, which makes stale entries rebuild on
+// next use.
+final class BindingMetadata<T>
+{
+    static final class FieldBinding
+    {
+        // Primitive fields bound by the default binder are written through setters typed on the
+        // primitive itself, so the value never gets boxed on its way into the model.
+        private enum Kind
+        {
+            REFERENCE,
+            BOOLEAN,
+            BYTE,
+            CHAR,
+            SHORT,
+            INT,
+            LONG,
+            FLOAT,
+            DOUBLE
+        }
+
+        final Field field;
+        final Typedef<Object> typedef;
+        final JsonBinder<Object> binder;
+        final JsonSerializer<Object> serializer;
+        private final Kind m_kind;
+        private final Kind m_write_kind;
+        private final MethodHandle m_setter;
+        private final MethodHandle m_getter;
+
+        private FieldBinding (final Field field, final Typedef<Object> typedef) throws IllegalAccessException
+        {
+            this.field = field;
+            this.typedef = typedef;
+            this.binder = SweetJson.get_binder(typedef);
+            this.serializer = SweetJson.get_serializer(typedef);
+            var type = field.getType();
+            m_kind = !type.isPrimitive() || binder != JsonPrimitiveBinder.INSTANCE ? Kind.REFERENCE
+                    : Kind.valueOf(type.getName().toUpperCase());
+            m_write_kind = !type.isPrimitive() || serializer != JsonPrimitiveSerializer.INSTANCE ? Kind.REFERENCE
+                    : Kind.valueOf(type.getName().toUpperCase());
+            var value_type = m_kind == Kind.REFERENCE ? Object.class : type;
+            m_setter = MethodHandles.lookup().unreflectSetter(field)
+                    .asType(MethodType.methodType(void.class, Object.class, value_type));
+            var written_type = m_write_kind == Kind.REFERENCE ? Object.class : type;
+            m_getter = MethodHandles.lookup().unreflectGetter(field)
+                    .asType(MethodType.methodType(written_type, Object.class));
+        }
+
+        // Whether the value can be written straight from the JsonValue without going through a binder.
+        boolean is_primitive ()
+        {
+            return m_kind != Kind.REFERENCE;
+        }
+
+        void bind (final Object model, final JsonValue value, final Bag bag)
+        {
+            try
+            {
+                switch (m_kind)
+                {
+                    case BOOLEAN -> m_setter.invokeExact(model, value.as_bool());
+                    case BYTE -> m_setter.invokeExact(model, value.as_byte());
+                    case CHAR -> m_setter.invokeExact(model, value.as_char());
+                    case SHORT -> m_setter.invokeExact(model, value.as_short());
+                    case INT -> m_setter.invokeExact(model, value.as_int());
+                    case LONG -> m_setter.invokeExact(model, value.as_long());
+                    case FLOAT -> m_setter.invokeExact(model, value.as_float());
+                    case DOUBLE -> m_setter.invokeExact(model, value.as_double());
+                    default -> m_setter.invokeExact(model, binder.construct(value, typedef, bag));
+                }
+            } catch (RuntimeException | Error exception)
+            {
+                throw exception;
+            } catch (Throwable throwable)
+            {
+                throw new RuntimeException(throwable);
+            }
+        }
+
+        // Writes the field as a key/value pair; null references are left out, like on the binding side.
+        void write (final Object model, final JsonWriter writer, final Bag bag)
+        {
+            var name = field.getName();
+            try
+            {
+                switch (m_write_kind)
+                {
+                    case BOOLEAN -> writer.key(name).value((boolean) m_getter.invokeExact(model));
+                    case BYTE -> writer.key(name).value((long) (byte) m_getter.invokeExact(model));
+                    case CHAR -> writer.key(name).value((long) (char) m_getter.invokeExact(model));
+                    case SHORT -> writer.key(name).value((long) (short) m_getter.invokeExact(model));
+                    case INT -> writer.key(name).value((long) (int) m_getter.invokeExact(model));
+                    case LONG -> writer.key(name).value((long) m_getter.invokeExact(model));
+                    case FLOAT -> writer.key(name).value((float) m_getter.invokeExact(model));
+                    case DOUBLE -> writer.key(name).value((double) m_getter.invokeExact(model));
+                    default ->
+                    {
+                        var value = (Object) m_getter.invokeExact(model);
+                        if (value == null)
+                            return;
+                        writer.key(name);
+                        if (value.getClass() == typedef.klass())
+                            serializer.serialize(value, typedef, writer, bag);
+                        else
+                            SweetJson.write_value(value, typedef, writer, bag);
+                    }
+                }
+            } catch (RuntimeException | Error exception)
+            {
+                throw exception;
+            } catch (Throwable throwable)
+            {
+                throw new RuntimeException(throwable);
+            }
+        }
+
+        // Same as bind(), but takes the value straight from the token stream.
+        void read (final Object model, final JsonTokenReader reader, final Bag bag)
+        {
+            try
+            {
+                switch (m_kind)
+                {
+                    case BOOLEAN -> m_setter.invokeExact(model, reader.next_bool());
+                    case BYTE -> m_setter.invokeExact(model, (byte) (int) reader.next_number());
+                    case CHAR -> m_setter.invokeExact(model, (char) (int) reader.next_number());
+                    case SHORT -> m_setter.invokeExact(model, (short) (int) reader.next_number());
+                    case INT -> m_setter.invokeExact(model, (int) reader.next_number());
+                    case LONG -> m_setter.invokeExact(model, reader.next_long());
+                    case FLOAT -> m_setter.invokeExact(model, (float) reader.next_number());
+                    case DOUBLE -> m_setter.invokeExact(model, reader.next_number());
+                    default -> m_setter.invokeExact(model, binder.read(reader, typedef, bag));
+                }
+            } catch (RuntimeException | Error exception)
+            {
+                throw exception;
+            } catch (Throwable throwable)
+            {
+                throw new RuntimeException(throwable);
+            }
+        }
+    }
+
+    private static final ClassValue<Map<Type, BindingMetadata<?>>> CACHE = new ClassValue<>()
+    {
+        @Override
+        protected Map<Type, BindingMetadata<?>> computeValue (final Class<?> klass)
+        {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final int m_version;
+    private final Map<String, FieldBinding> m_fields;
+    private final List<FieldBinding> m_ordered_fields;
+
+    private BindingMetadata (final Typedef<T> definition, final int version)
+    {
+        m_version = version;
+        var fields = JsonUtils.get_serializable_fields(definition.klass());
+        m_fields = new HashMap<>(fields.size() * 2);
+        m_ordered_fields = new ArrayList<>(fields.size());
+        try
+        {
+            for (var field : fields.values())
+            {
+                field.setAccessible(true);
+                var binding = new FieldBinding(field, JsonUtils.get_field_typedef(field, definition));
+                m_fields.put(field.getName(), binding);
+                m_ordered_fields.add(binding);
+            }
+        } catch (IllegalAccessException exception)
+        {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    FieldBinding field (final String name)
+    {
+        return m_fields.get(name);
+    }
+
+    // In declaration order.
+    List<FieldBinding> fields ()
+    {
+        return m_ordered_fields;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> BindingMetadata<T> of (final Typedef<T> definition)
+    {
+        var by_arguments = CACHE.get(definition.klass());
+        var arguments = definition.type();
+        var metadata = (BindingMetadata<T>) by_arguments.get(arguments);
+        int version = SweetJson.registry_version();
+        if (metadata == null || metadata.m_version != version)
+        {
+            metadata = new BindingMetadata<>(definition, version);
+            by_arguments.put(arguments, metadata);
+        }
+        return metadata;
+    }
+}
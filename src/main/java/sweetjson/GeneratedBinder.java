@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Base class of the binders SweetJson generates at runtime (see SweetJson.register_generated_binder).
+// The generated subclass matches keys against its fields with a hash switch and writes them with
+// plain putfield instructions; this class only hands it the binders of the non-primitive fields.
+// Not meant to be extended by hand.
+public abstract class GeneratedBinder<T> implements JsonBinder<T>
+{
+    // The field binders for one parameterization of the model, indexed by slot. A null binder marks
+    // a primitive field the generated code writes by itself. Rebuilt when the registry changes.
+    private static final class Slots
+    {
+        private final Type m_type;
+        private final int m_version;
+        private final JsonBinder<?>[] m_binders;
+        private final Typedef<?>[] m_typedefs;
+        // The fields the generated code can't write, or null when there are none.
+        private final Map<String, BindingMetadata.FieldBinding> m_reflective;
+
+        private Slots (final Typedef<?> definition, final int version, final String[] names)
+        {
+            m_type = definition.type();
+            m_version = version;
+            var metadata = BindingMetadata.of(definition);
+            m_binders = new JsonBinder<?>[names.length];
+            m_typedefs = new Typedef<?>[names.length];
+            for (int i = 0; i < names.length; i++)
+            {
+                var field = metadata.field(names[i]);
+                m_binders[i] = field.is_primitive() ? null : field.binder;
+                m_typedefs[i] = field.typedef;
+            }
+            var generated = new HashSet<>(List.of(names));
+            var reflective = new HashMap<String, BindingMetadata.FieldBinding>();
+            for (var field : metadata.fields())
+                if (!generated.contains(field.field.getName()))
+                    reflective.put(field.field.getName(), field);
+            m_reflective = reflective.isEmpty() ? null : reflective;
+        }
+    }
+
+    private String[] m_names;
+    private volatile Slots m_last;
+    private final Map<Type, Slots> m_slots = new ConcurrentHashMap<>();
+
+    protected GeneratedBinder ()
+    {
+    }
+
+    void initialize (final String[] names)
+    {
+        m_names = names;
+    }
+
+    private Slots slots (final Typedef<T> definition)
+    {
+        int version = SweetJson.registry_version();
+        var slots = m_last;
+        if (slots != null && slots.m_type == definition.type() && slots.m_version == version)
+            return slots;
+        slots = m_slots.get(definition.type());
+        if (slots == null || slots.m_version != version)
+        {
+            slots = new Slots(definition, version, m_names);
+            m_slots.put(definition.type(), slots);
+        }
+        m_last = slots;
+        return slots;
+    }
+
+    protected abstract Object create ();
+
+    // Binds the field named `key` from a JsonValue; false when the model has no such writable field.
+    protected abstract boolean bind_field (Object model, String key, JsonValue value, JsonBinder<?>[] binders,
+                                           Typedef<?>[] typedefs, Bag bag);
+
+    // Binds the field named `key` from the reader's next value; false (with the value left unread)
+    // when the model has no such writable field.
+    protected abstract boolean read_field (Object model, String key, JsonTokenReader reader,
+                                           JsonBinder<?>[] binders, Typedef<?>[] typedefs, Bag bag);
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T construct (final JsonValue value, final Typedef<T> definition, final Bag bag)
+    {
+        var model = create();
+        var slots = slots(definition);
+        for (var entry : value.as_map().entrySet())
+        {
+            var json = entry.getValue();
+            if (json.is_null() || bind_field(model, entry.getKey(), json, slots.m_binders, slots.m_typedefs, bag)
+                    || slots.m_reflective == null)
+                continue;
+            var field = slots.m_reflective.get(entry.getKey());
+            if (field != null)
+                field.bind(model, json, bag);
+        }
+        return (T) model;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T read (final JsonTokenReader reader, final Typedef<T> definition, final Bag bag)
+    {
+        reader.expect(JsonTokenReader.Token.START_OBJECT);
+        var model = create();
+        var slots = slots(definition);
+        while (reader.next() == JsonTokenReader.Token.KEY)
+        {
+            var key = reader.string_value();
+            if (reader.peek() == JsonTokenReader.Token.NULL
+                    || !read_field(model, key, reader, slots.m_binders, slots.m_typedefs, bag))
+            {
+                var field = slots.m_reflective == null ? null : slots.m_reflective.get(key);
+                if (field == null || reader.peek() == JsonTokenReader.Token.NULL)
+                    reader.skip_value();
+                else
+                    field.read(model, reader, bag);
+            }
+        }
+        return (T) model;
+    }
+}
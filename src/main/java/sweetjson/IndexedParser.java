@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package sweetjson;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static sweetjson.JsonParser.throw_if;
+
+// Parses an in-memory document in two stages. StructuralIndexer first finds every structural
+// character and scalar in bulk; this class then builds the tree by walking those offsets, so
+// whitespace is never looked at and the next value's type is a single byte read. Strings and
+// numbers are still decoded by a JsonParser over the same bytes, seeked to where they start.
+// The offsets are produced a window at a time as the walk goes, keeping the index to a fixed
+// size for documents of any length. The result and the errors are those of JsonParser.parse.
+final class IndexedParser
+{
+    private final byte[] m_json;
+    private final StructuralIndexer.Cursor m_cursor;
+    private final JsonParser m_parser;
+    private final int[] m_offsets;
+    private int m_count = 0;
+    private int m_next = 0;
+
+    private IndexedParser (final byte[] json, final StructuralIndexer indexer, final int window)
+    {
+        m_json = json;
+        m_cursor = indexer.cursor(json, window);
+        m_offsets = m_cursor.offsets();
+        m_parser = new JsonParser(json);
+    }
+
+    static JsonValue parse (final byte[] json)
+    {
+        return parse(json, StructuralIndexer.INSTANCE);
+    }
+
+    static JsonValue parse (final byte[] json, final StructuralIndexer indexer)
+    {
+        return parse(json, indexer, StructuralIndexer.WINDOW);
+    }
+
+    static JsonValue parse (final byte[] json, final StructuralIndexer indexer, final int window)
+    {
+        var parser = new IndexedParser(json, indexer, window);
+        var first = parser.peek();
+        throw_if(first != '{' && first != '[', "Invalid JSON input!");
+        var value = parser.parse_value();
+        throw_if(parser.offset() != json.length, "Invalid JSON input!");
+        return value;
+    }
+
+    private static boolean is_whitespace (final byte ch)
+    {
+        return ch == ' ' || ch == '\n' || ch == '\r' || ch == '\t' || ch == '\b' || ch == '\f';
+    }
+
+    // The offset at m_next, indexing the next window once this one is used up. The offsets end
+    // with json.length, which is never stepped over.
+    private int offset ()
+    {
+        if (m_next == m_count)
+        {
+            m_count = m_cursor.fill();
+            m_next = 0;
+        }
+        return m_offsets[m_next];
+    }
+
+    // Running out of input shows as reaching that final offset.
+    private int next ()
+    {
+        int offset = offset();
+        throw_if(offset == m_json.length, "Attempted reading beyond EOF!");
+        m_next++;
+        return offset;
+    }
+
+    private byte peek ()
+    {
+        int offset = offset();
+        return offset == m_json.length ? 0 : m_json[offset];
+    }
+
+    private char read_or_throw (final char first, final char second)
+    {
+        var next = (char) m_json[next()];
+        if (next != first && next != second)
+            throw new RuntimeException(String.format("Expected [`%c`,`%c`,]", first, second));
+        return next;
+    }
+
+    private JsonValue parse_value ()
+    {
+        int offset = next();
+        return switch (m_json[offset])
+                {
+                    case '{' -> parse_object();
+                    case '[' -> parse_array();
+                    case '"' -> {
+                        m_parser.seek(offset);
+                        yield new JsonValue(m_parser.scan_string());
+                    }
+                    default -> parse_scalar(offset);
+                };
+    }
+
+    // Numbers and literals are only bounded by whatever comes after them, so the bytes up to the
+    // next offset have to be whitespace: anything else is part of the same malformed token.
+    private JsonValue parse_scalar (final int offset)
+    {
+        m_parser.seek(offset);
+        var value = switch (m_parser.get_next_value_type())
+                {
+                    case NUMBER -> m_parser.scan_number_value();
+                    case BOOL -> new JsonValue(m_parser.scan_boolean());
+                    case NULL -> {
+                        m_parser.scan_null();
+                        yield new JsonValue(null);
+                    }
+                    default -> throw new RuntimeException("UNKNOWN value type!");
+                };
+        for (int i = m_parser.position(), end = offset(); i < end; i++)
+            throw_if(!is_whitespace(m_json[i]), "Invalid JSON input!");
+        return value;
+    }
+
+    private JsonValue parse_array ()
+    {
+        List<JsonValue> list = new ArrayList<>();
+        if (peek() == ']')
+            m_next++;
+        else
+        {
+            do list.add(parse_value());
+            while (read_or_throw(',', ']') == ',');
+        }
+        return new JsonValue(list);
+    }
+
+    private JsonValue parse_object ()
+    {
+        Map<String, JsonValue> map = new HashMap<>();
+        if (peek() == '}')
+            m_next++;
+        else
+        {
+            do
+            {
+                int offset = next();
+                throw_if(m_json[offset] != '"', "Expected [`\"`,]");
+                m_parser.seek(offset);
+                var key = m_parser.scan_string();
+                throw_if(key.isEmpty(), "Empty key not allowed!");
+                throw_if(m_json[next()] != ':', "Expected [`:`,]");
+                map.put(key, parse_value());
+            } while (read_or_throw(',', '}') == ',');
+        }
+        return new JsonValue(map);
+    }
+}
@@ -17,11 +17,24 @@
 package sweetjson;
 
 import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
+// Arrays of primitives bound by the default binder are filled directly, element by element,
+// without boxing or reflection. Everything else goes through the component type's binder,
+// which is looked up once per array. Nulls are skipped, so the array can be shorter than the
+// JSON array.
 public class JsonArrayBinder<T> implements JsonBinder<T>
 {
     public static final JsonBinder<?> INSTANCE = new JsonArrayBinder<>();
 
+    private static boolean has_default_binder (final Class<?> component_type)
+    {
+        return component_type.isPrimitive()
+                && SweetJson.get_binder(SweetJson.typedef_of(component_type)) == JsonPrimitiveBinder.INSTANCE;
+    }
+
     @SuppressWarnings("unchecked")
     public T construct (final JsonValue value, final Typedef<T> definition, final Bag bag)
     {
@@ -29,15 +42,231 @@ public class JsonArrayBinder<T> implements JsonBinder<T>
         final var component_type = definition.klass().componentType();
         int size_without_null = 0;
         for (var entry : list) size_without_null += entry.is_null() ? 0 : 1;
+        if (has_default_binder(component_type))
+            return (T) construct_primitive(list, component_type, size_without_null);
+
+        final var component = (Typedef<Object>) definition.component_typedef();
+        final var binder = SweetJson.get_binder(component);
+        if (!component_type.isPrimitive() && ParallelBinder.is_enabled(bag, list.size()))
+            return (T) construct_parallel(list, component, binder, bag, size_without_null);
         final var model = Array.newInstance(component_type, size_without_null);
-        int i = 0, j = 0;
-        while (j < list.size())
+        int i = 0;
+        for (var entry : list)
         {
-            var entry = list.get(j);
-            if (!entry.is_null())
-                Array.set(model, i++, entry.bind_to(component_type, bag));
-            j++;
+            if (entry.is_null())
+                continue;
+            var element = binder.construct(entry, component, bag);
+            if (component_type.isPrimitive())
+                Array.set(model, i++, element);
+            else
+                ((Object[]) model)[i++] = element;
         }
         return (T) model;
     }
+
+    private static Object[] construct_parallel (final List<JsonValue> list, final Typedef<Object> component,
+                                                final JsonBinder<Object> binder, final Bag bag, final int size)
+    {
+        final var model = (Object[]) Array.newInstance(component.klass(), size);
+        // Without nulls every element is bound straight into its slot of the result.
+        final var elements = size == list.size() ? model : new Object[list.size()];
+        ParallelBinder.bind(list, component, binder, bag, elements);
+        if (elements != model)
+        {
+            int i = 0;
+            for (int j = 0; j < elements.length; j++)
+            {
+                if (!list.get(j).is_null())
+                    model[i++] = elements[j];
+            }
+        }
+        return model;
+    }
+
+    private static Object construct_primitive (final List<JsonValue> list, final Class<?> component_type, final int size)
+    {
+        int i = 0;
+        if (component_type == int.class)
+        {
+            final var model = new int[size];
+            for (var entry : list) if (!entry.is_null()) model[i++] = entry.as_int();
+            return model;
+        } else if (component_type == long.class)
+        {
+            final var model = new long[size];
+            for (var entry : list) if (!entry.is_null()) model[i++] = entry.as_long();
+            return model;
+        } else if (component_type == double.class)
+        {
+            final var model = new double[size];
+            for (var entry : list) if (!entry.is_null()) model[i++] = entry.as_double();
+            return model;
+        } else if (component_type == float.class)
+        {
+            final var model = new float[size];
+            for (var entry : list) if (!entry.is_null()) model[i++] = entry.as_float();
+            return model;
+        } else if (component_type == byte.class)
+        {
+            final var model = new byte[size];
+            for (var entry : list) if (!entry.is_null()) model[i++] = entry.as_byte();
+            return model;
+        } else if (component_type == short.class)
+        {
+            final var model = new short[size];
+            for (var entry : list) if (!entry.is_null()) model[i++] = entry.as_short();
+            return model;
+        } else if (component_type == char.class)
+        {
+            final var model = new char[size];
+            for (var entry : list) if (!entry.is_null()) model[i++] = entry.as_char();
+            return model;
+        } else
+        {
+            final var model = new boolean[size];
+            for (var entry : list) if (!entry.is_null()) model[i++] = entry.as_bool();
+            return model;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T read (final JsonTokenReader reader, final Typedef<T> definition, final Bag bag)
+    {
+        reader.expect(JsonTokenReader.Token.START_ARRAY);
+        final var component_type = definition.klass().componentType();
+        if (has_default_binder(component_type))
+            return (T) read_primitive(reader, component_type);
+
+        final var component = (Typedef<Object>) definition.component_typedef();
+        final var binder = SweetJson.get_binder(component);
+        final var elements = new ArrayList<>();
+        JsonTokenReader.Token token;
+        while ((token = reader.peek()) != JsonTokenReader.Token.END_ARRAY)
+        {
+            if (token == JsonTokenReader.Token.NULL)
+                reader.next();
+            else
+                elements.add(binder.read(reader, component, bag));
+        }
+        reader.next();
+        if (!component_type.isPrimitive())
+            return (T) elements.toArray((Object[]) Array.newInstance(component_type, elements.size()));
+        final var model = Array.newInstance(component_type, elements.size());
+        for (int i = 0; i < elements.size(); i++)
+            Array.set(model, i, elements.get(i));
+        return (T) model;
+    }
+
+    // Consumes the next token if it's a null element, which is skipped.
+    private static boolean skip_null (final JsonTokenReader reader)
+    {
+        if (reader.peek() != JsonTokenReader.Token.NULL)
+            return false;
+        reader.next();
+        return true;
+    }
+
+    // The size isn't known up front, so the array grows as needed and is trimmed at the end.
+    private static Object read_primitive (final JsonTokenReader reader, final Class<?> component_type)
+    {
+        int i = 0;
+        if (component_type == int.class)
+        {
+            var model = new int[16];
+            while (reader.peek() != JsonTokenReader.Token.END_ARRAY)
+            {
+                if (skip_null(reader))
+                    continue;
+                if (i == model.length) model = Arrays.copyOf(model, i * 2);
+                model[i++] = (int) reader.next_number();
+            }
+            reader.next();
+            return Arrays.copyOf(model, i);
+        } else if (component_type == long.class)
+        {
+            var model = new long[16];
+            while (reader.peek() != JsonTokenReader.Token.END_ARRAY)
+            {
+                if (skip_null(reader))
+                    continue;
+                if (i == model.length) model = Arrays.copyOf(model, i * 2);
+                model[i++] = reader.next_long();
+            }
+            reader.next();
+            return Arrays.copyOf(model, i);
+        } else if (component_type == double.class)
+        {
+            var model = new double[16];
+            while (reader.peek() != JsonTokenReader.Token.END_ARRAY)
+            {
+                if (skip_null(reader))
+                    continue;
+                if (i == model.length) model = Arrays.copyOf(model, i * 2);
+                model[i++] = reader.next_number();
+            }
+            reader.next();
+            return Arrays.copyOf(model, i);
+        } else if (component_type == float.class)
+        {
+            var model = new float[16];
+            while (reader.peek() != JsonTokenReader.Token.END_ARRAY)
+            {
+                if (skip_null(reader))
+                    continue;
+                if (i == model.length) model = Arrays.copyOf(model, i * 2);
+                model[i++] = (float) reader.next_number();
+            }
+            reader.next();
+            return Arrays.copyOf(model, i);
+        } else if (component_type == byte.class)
+        {
+            var model = new byte[16];
+            while (reader.peek() != JsonTokenReader.Token.END_ARRAY)
+            {
+                if (skip_null(reader))
+                    continue;
+                if (i == model.length) model = Arrays.copyOf(model, i * 2);
+                model[i++] = (byte) (int) reader.next_number();
+            }
+            reader.next();
+            return Arrays.copyOf(model, i);
+        } else if (component_type == short.class)
+        {
+            var model = new short[16];
+            while (reader.peek() != JsonTokenReader.Token.END_ARRAY)
+            {
+                if (skip_null(reader))
+                    continue;
+                if (i == model.length) model = Arrays.copyOf(model, i * 2);
+                model[i++] = (short) (int) reader.next_number();
+            }
+            reader.next();
+            return Arrays.copyOf(model, i);
+        } else if (component_type == char.class)
+        {
+            var model = new char[16];
+            while (reader.peek() != JsonTokenReader.Token.END_ARRAY)
+            {
+                if (skip_null(reader))
+                    continue;
+                if (i == model.length) model = Arrays.copyOf(model, i * 2);
+                model[i++] = (char) (int) reader.next_number();
+            }
+            reader.next();
+            return Arrays.copyOf(model, i);
+        } else
+        {
+            var model = new boolean[16];
+            while (reader.peek() != JsonTokenReader.Token.END_ARRAY)
+            {
+                if (skip_null(reader))
+                    continue;
+                if (i == model.length) model = Arrays.copyOf(model, i * 2);
+                model[i++] = reader.next_bool();
+            }
+            reader.next();
+            return Arrays.copyOf(model, i);
+        }
+    }
 }
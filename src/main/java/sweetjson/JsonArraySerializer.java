@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+public class JsonArraySerializer<T> implements JsonSerializer<T>
+{
+    public static final JsonSerializer<?> INSTANCE = new JsonArraySerializer<>();
+
+    @Override
+    public void serialize (final T value, final Typedef<T> definition, final JsonWriter writer, final Bag bag)
+    {
+        writer.begin_array();
+        if (value instanceof Object[])
+        {
+            final var component = definition.component_typedef();
+            for (var element : (Object[]) value)
+                SweetJson.write_value(element, component, writer, bag);
+        } else if (value instanceof int[])
+        {
+            for (var element : (int[]) value) writer.value(element);
+        } else if (value instanceof long[])
+        {
+            for (var element : (long[]) value) writer.value(element);
+        } else if (value instanceof double[])
+        {
+            for (var element : (double[]) value) writer.value(element);
+        } else if (value instanceof float[])
+        {
+            for (var element : (float[]) value) writer.value(element);
+        } else if (value instanceof boolean[])
+        {
+            for (var element : (boolean[]) value) writer.value(element);
+        } else if (value instanceof byte[])
+        {
+            for (var element : (byte[]) value) writer.value(element);
+        } else if (value instanceof short[])
+        {
+            for (var element : (short[]) value) writer.value(element);
+        } else if (value instanceof char[])
+        {
+            for (var element : (char[]) value) writer.value(element);
+        }
+        writer.end_array();
+    }
+}
@@ -20,4 +20,12 @@ package sweetjson;
 public interface JsonBinder<T>
 {
     T construct (final JsonValue value, final Typedef<T> definition, final Bag bag);
+
+    // Binds the next value of `reader` (used by SweetJson.read). Binders that only implement
+    // construct() get the value as a JsonValue tree; the built-in binders override this to bind
+    // straight from the tokens.
+    default T read (final JsonTokenReader reader, final Typedef<T> definition, final Bag bag)
+    {
+        return construct(reader.read_value(), definition, bag);
+    }
 }
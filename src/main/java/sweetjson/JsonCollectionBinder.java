@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+import static sweetjson.JsonParser.throw_if;
+
+// Binds JSON arrays to Collections. Elements are bound with the binder of the first type
+// argument (looked up once per collection), or as natural values (see JsonUntypedBinder) for raw
+// collections, and nulls are skipped, as for arrays. Interfaces get
+// a sensible implementation (ArrayList, LinkedHashSet, TreeSet or ArrayDeque) sized for the
+// array; concrete classes are instantiated directly.
+public class JsonCollectionBinder<T> implements JsonBinder<T>
+{
+    public static final JsonBinder<?> INSTANCE = new JsonCollectionBinder<>();
+
+    @SuppressWarnings("unchecked")
+    private static Collection<Object> create (final Typedef<?> definition, final int size)
+    {
+        var klass = definition.klass();
+        if (klass == List.class || klass == Collection.class || klass == Iterable.class || klass == ArrayList.class)
+            return new ArrayList<>(size);
+        if (klass == Set.class || klass == LinkedHashSet.class)
+            return new LinkedHashSet<>(JsonMapBinder.capacity(size));
+        if (klass == HashSet.class)
+            return new HashSet<>(JsonMapBinder.capacity(size));
+        if (klass == SortedSet.class || klass == NavigableSet.class || klass == TreeSet.class)
+            return new TreeSet<>();
+        if (klass == Queue.class || klass == Deque.class || klass == ArrayDeque.class)
+            return new ArrayDeque<>(size);
+        throw_if(klass.isInterface() || Modifier.isAbstract(klass.getModifiers()),
+                "Can't instantiate `" + klass.getName() + "`, register a binder for it!");
+        return (Collection<Object>) definition.create_instance();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Typedef<Object> element_typedef (final Typedef<?> definition)
+    {
+        return (Typedef<Object>) (definition.has_type_args() ? definition.type_arg_typedef(0) : SweetJson.typedef_of(Object.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T construct (final JsonValue value, final Typedef<T> definition, final Bag bag)
+    {
+        final var list = value.as_list();
+        final var element = element_typedef(definition);
+        final var binder = SweetJson.get_binder(element);
+        final var model = create(definition, list.size());
+        if (ParallelBinder.is_enabled(bag, list.size()))
+        {
+            final var elements = new Object[list.size()];
+            ParallelBinder.bind(list, element, binder, bag, elements);
+            for (int i = 0; i < elements.length; i++)
+            {
+                if (!list.get(i).is_null())
+                    model.add(elements[i]);
+            }
+            return (T) model;
+        }
+        for (var entry : list)
+        {
+            if (!entry.is_null())
+                model.add(binder.construct(entry, element, bag));
+        }
+        return (T) model;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T read (final JsonTokenReader reader, final Typedef<T> definition, final Bag bag)
+    {
+        reader.expect(JsonTokenReader.Token.START_ARRAY);
+        final var element = element_typedef(definition);
+        final var binder = SweetJson.get_binder(element);
+        final var model = create(definition, 16);
+        JsonTokenReader.Token token;
+        while ((token = reader.peek()) != JsonTokenReader.Token.END_ARRAY)
+        {
+            if (token == JsonTokenReader.Token.NULL)
+                reader.next();
+            else
+                model.add(binder.read(reader, element, bag));
+        }
+        reader.next();
+        return (T) model;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+// Collections are written as arrays. Elements are typed by the first type argument when there is one.
+public class JsonIterableSerializer<T> implements JsonSerializer<T>
+{
+    public static final JsonSerializer<?> INSTANCE = new JsonIterableSerializer<>();
+
+    @Override
+    public void serialize (final T value, final Typedef<T> definition, final JsonWriter writer, final Bag bag)
+    {
+        final var element_type = (definition.has_type_args() ? definition.type_arg_typedef(0) : SweetJson.typedef_of(Object.class));
+        writer.begin_array();
+        for (var element : (Iterable<?>) value)
+            SweetJson.write_value(element, element_type, writer, bag);
+        writer.end_array();
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Reads newline-delimited JSON (JSON Lines): one value per line, of any type, with blank lines
+// skipped. Records are parsed as they're pulled, so however long the input is, only the line
+// being parsed has to be in memory. The input is read once: every iterator and stream continues
+// where the previous one stopped.
+//
+// parallel() reads ahead in batches of lines that are parsed, and bound, on an executor. Records
+// still come out in input order. At most `max_batches` batches are read ahead of the consumer, so
+// memory stays bounded and a slow consumer holds the reader back instead of piling up records.
+public class JsonLinesReader implements Iterable<JsonValue>, AutoCloseable
+{
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream m_stream;
+    private byte[] m_buffer = new byte[BUFFER_SIZE];
+    private JsonParser m_parser = new JsonParser(m_buffer);
+    private int m_position = 0;
+    private int m_limit = 0;
+    // Where the search for the next newline resumes, so long lines aren't rescanned on every refill.
+    private int m_scanned = 0;
+    private boolean m_eof = false;
+    private long m_line = 0;
+    // The line found by next_line().
+    private int m_line_start;
+    private int m_line_end;
+
+    JsonLinesReader (final InputStream stream)
+    {
+        m_stream = Objects.requireNonNull(stream);
+    }
+
+    private static boolean is_blank (final byte[] bytes, final int from, final int to)
+    {
+        for (int i = from; i < to; i++)
+        {
+            var ch = bytes[i];
+            if (ch != ' ' && ch != '\t' && ch != '\r' && ch != '\f' && ch != '\b')
+                return false;
+        }
+        return true;
+    }
+
+    // Keeps the partial line at the front of the buffer (growing the buffer when the line fills
+    // it) and reads more input after it.
+    private void fill ()
+    {
+        int pending = m_limit - m_position;
+        if (m_position > 0)
+            System.arraycopy(m_buffer, m_position, m_buffer, 0, pending);
+        else if (pending == m_buffer.length)
+        {
+            m_buffer = Arrays.copyOf(m_buffer, m_buffer.length * 2);
+            m_parser = new JsonParser(m_buffer);
+        }
+        m_scanned -= m_position;
+        m_position = 0;
+        m_limit = pending;
+        try
+        {
+            int read = m_stream.read(m_buffer, m_limit, m_buffer.length - m_limit);
+            if (read == -1)
+                m_eof = true;
+            else
+                m_limit += read;
+        } catch (IOException ioe)
+        {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    // Moves to the next line that isn't blank; false once the input is exhausted.
+    private boolean next_line ()
+    {
+        while (true)
+        {
+            while (m_scanned < m_limit && m_buffer[m_scanned] != '\n')
+                m_scanned++;
+            int end;
+            if (m_scanned < m_limit)
+                end = m_scanned;
+            else if (!m_eof)
+            {
+                fill();
+                continue;
+            } else if (m_position < m_limit)
+                end = m_limit;
+            else
+                return false;
+
+            m_line_start = m_position;
+            m_line_end = end;
+            m_position = Math.min(end + 1, m_limit);
+            m_scanned = m_position;
+            m_line++;
+            if (!is_blank(m_buffer, m_line_start, m_line_end))
+                return true;
+        }
+    }
+
+    private static JsonValue parse_line (final JsonParser parser, final int start, final int end, final long line)
+    {
+        try
+        {
+            return parser.parse_element(start, end);
+        } catch (RuntimeException exc)
+        {
+            throw new RuntimeException("Invalid JSON on line " + line + "!", exc);
+        }
+    }
+
+    private static <T> T bind (final JsonValue value, final Typedef<T> definition, final JsonBinder<T> binder)
+    {
+        return value.is_null() ? null : binder.construct(value, definition, Bag.empty());
+    }
+
+    @Override
+    public Iterator<JsonValue> iterator ()
+    {
+        return new Iterator<>()
+        {
+            private JsonValue m_next;
+
+            @Override
+            public boolean hasNext ()
+            {
+                if (m_next == null && next_line())
+                    m_next = parse_line(m_parser, m_line_start, m_line_end, m_line);
+                return m_next != null;
+            }
+
+            @Override
+            public JsonValue next ()
+            {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                var next = m_next;
+                m_next = null;
+                return next;
+            }
+        };
+    }
+
+    // Records bound to `definition`; `null` lines come out as null.
+    public <T> Iterator<T> iterator (final Typedef<T> definition)
+    {
+        final var binder = SweetJson.get_binder(definition);
+        final var values = iterator();
+        return new Iterator<>()
+        {
+            @Override
+            public boolean hasNext ()
+            {
+                return values.hasNext();
+            }
+
+            @Override
+            public T next ()
+            {
+                return bind(values.next(), definition, binder);
+            }
+        };
+    }
+
+    // Closing the stream closes the reader.
+    public Stream<JsonValue> stream ()
+    {
+        return stream(iterator());
+    }
+
+    public <T> Stream<T> stream (final Typedef<T> definition)
+    {
+        return stream(iterator(definition));
+    }
+
+    private <T> Stream<T> stream (final Iterator<T> iterator)
+    {
+        var spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    public Iterator<JsonValue> parallel (final Executor executor, final int batch_size, final int max_batches)
+    {
+        return parallel(null, executor, batch_size, max_batches);
+    }
+
+    // Records bound to `definition` on the executor, `batch_size` lines per task.
+    public <T> Iterator<T> parallel (final Typedef<T> definition, final Executor executor, final int batch_size,
+                                     final int max_batches)
+    {
+        Objects.requireNonNull(executor);
+        JsonParser.throw_if(batch_size < 1 || max_batches < 1, "Batch size and count must be positive!");
+        final var binder = definition == null ? null : SweetJson.get_binder(definition);
+        return new Iterator<>()
+        {
+            private final ArrayDeque<CompletableFuture<Object[]>> m_pending = new ArrayDeque<>();
+            private Object[] m_records = new Object[0];
+            private int m_index = 0;
+
+            // Copies the next batch of lines out of the read buffer; null at the end of the input.
+            private Batch read_batch ()
+            {
+                Batch batch = null;
+                while (batch == null || batch.m_count < batch_size)
+                {
+                    if (!next_line())
+                        break;
+                    if (batch == null)
+                        batch = new Batch();
+                    batch.add(m_buffer, m_line_start, m_line_end, m_line);
+                }
+                return batch;
+            }
+
+            private Object[] process (final Batch batch)
+            {
+                var parser = new JsonParser(batch.m_bytes);
+                var records = new Object[batch.m_count];
+                for (int i = 0; i < batch.m_count; i++)
+                {
+                    var value = parse_line(parser, batch.m_offsets[i], batch.m_offsets[i + 1], batch.m_lines[i]);
+                    records[i] = binder == null ? value : bind(value, definition, binder);
+                }
+                return records;
+            }
+
+            @Override
+            public boolean hasNext ()
+            {
+                while (m_index == m_records.length)
+                {
+                    // Top up the batches in flight; this is where a slow consumer slows the reader down.
+                    Batch batch;
+                    while (m_pending.size() < max_batches && (batch = read_batch()) != null)
+                    {
+                        final var task = batch;
+                        m_pending.add(CompletableFuture.supplyAsync(() -> process(task), executor));
+                    }
+                    if (m_pending.isEmpty())
+                        return false;
+                    try
+                    {
+                        m_records = m_pending.poll().join();
+                    } catch (CompletionException exc)
+                    {
+                        throw exc.getCause() instanceof RuntimeException ? (RuntimeException) exc.getCause() : exc;
+                    }
+                    m_index = 0;
+                }
+                return true;
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public T next ()
+            {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return (T) m_records[m_index++];
+            }
+        };
+    }
+
+    @Override
+    public void close ()
+    {
+        try
+        {
+            m_stream.close();
+        } catch (IOException ioe)
+        {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    // Lines copied out of the read buffer, back to back, for one parallel task.
+    private static final class Batch
+    {
+        private byte[] m_bytes = new byte[4096];
+        // Line i spans [m_offsets[i], m_offsets[i + 1]) and is line m_lines[i] of the input.
+        private int[] m_offsets = new int[65];
+        private long[] m_lines = new long[64];
+        private int m_count = 0;
+
+        private void add (final byte[] buffer, final int start, final int end, final long line)
+        {
+            int length = end - start;
+            int offset = m_offsets[m_count];
+            if (offset + length > m_bytes.length)
+                m_bytes = Arrays.copyOf(m_bytes, Math.max(m_bytes.length * 2, offset + length));
+            System.arraycopy(buffer, start, m_bytes, offset, length);
+            if (m_count == m_lines.length)
+            {
+                m_offsets = Arrays.copyOf(m_offsets, m_count * 2 + 1);
+                m_lines = Arrays.copyOf(m_lines, m_count * 2);
+            }
+            m_lines[m_count] = line;
+            m_offsets[++m_count] = offset + length;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+import static sweetjson.JsonParser.throw_if;
+
+// Binds JSON objects to Maps keyed by the JSON keys. Values are bound with the binder of the
+// second type argument (looked up once per map), or as natural values (see JsonUntypedBinder)
+// when there is none; nulls are skipped like everywhere else.
+// Map, SortedMap and NavigableMap get a LinkedHashMap or TreeMap; concrete classes are
+// instantiated directly, pre-sized when they're HashMaps.
+public class JsonMapBinder<T> implements JsonBinder<T>
+{
+    public static final JsonBinder<?> INSTANCE = new JsonMapBinder<>();
+
+    // Initial capacity of a hash table that holds `size` entries without rehashing.
+    static int capacity (final int size)
+    {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> create (final Typedef<?> definition, final int size)
+    {
+        var klass = definition.klass();
+        if (klass == Map.class || klass == LinkedHashMap.class)
+            return new LinkedHashMap<>(capacity(size));
+        if (klass == HashMap.class)
+            return new HashMap<>(capacity(size));
+        if (klass == SortedMap.class || klass == NavigableMap.class || klass == TreeMap.class)
+            return new TreeMap<>();
+        throw_if(klass.isInterface() || Modifier.isAbstract(klass.getModifiers()),
+                "Can't instantiate `" + klass.getName() + "`, register a binder for it!");
+        return (Map<String, Object>) definition.create_instance();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Typedef<Object> value_typedef (final Typedef<?> definition)
+    {
+        var arguments = definition.type_args();
+        if (arguments.length == 0)
+            return (Typedef<Object>) SweetJson.typedef_of(Object.class);
+        throw_if(!arguments[0].isAssignableFrom(String.class),
+                "Map keys can only be bound as strings, not `" + arguments[0].getName() + "`!");
+        return (Typedef<Object>) (arguments.length > 1 ? definition.type_arg_typedef(1) : SweetJson.typedef_of(Object.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T construct (final JsonValue value, final Typedef<T> definition, final Bag bag)
+    {
+        final var map = value.as_map();
+        final var value_type = value_typedef(definition);
+        final var binder = SweetJson.get_binder(value_type);
+        final var model = create(definition, map.size());
+        for (var entry : map.entrySet())
+        {
+            if (!entry.getValue().is_null())
+                model.put(entry.getKey(), binder.construct(entry.getValue(), value_type, bag));
+        }
+        return (T) model;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T read (final JsonTokenReader reader, final Typedef<T> definition, final Bag bag)
+    {
+        reader.expect(JsonTokenReader.Token.START_OBJECT);
+        final var value_type = value_typedef(definition);
+        final var binder = SweetJson.get_binder(value_type);
+        final var model = create(definition, 16);
+        while (reader.next() == JsonTokenReader.Token.KEY)
+        {
+            var key = reader.string_value();
+            if (reader.peek() == JsonTokenReader.Token.NULL)
+                reader.next();
+            else
+                model.put(key, binder.read(reader, value_type, bag));
+        }
+        return (T) model;
+    }
+}
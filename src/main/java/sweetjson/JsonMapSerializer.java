@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import java.util.Map;
+
+// Maps are written as objects, with keys converted through String.valueOf. Values are typed by
+// the second type argument when there is one.
+public class JsonMapSerializer<T> implements JsonSerializer<T>
+{
+    public static final JsonSerializer<?> INSTANCE = new JsonMapSerializer<>();
+
+    @Override
+    public void serialize (final T value, final Typedef<T> definition, final JsonWriter writer, final Bag bag)
+    {
+        final var value_type = (definition.type_args().length > 1 ? definition.type_arg_typedef(1) : SweetJson.typedef_of(Object.class));
+        writer.begin_object();
+        for (var entry : ((Map<?, ?>) value).entrySet())
+        {
+            writer.key(String.valueOf(entry.getKey()));
+            SweetJson.write_value(entry.getValue(), value_type, writer, bag);
+        }
+        writer.end_object();
+    }
+}
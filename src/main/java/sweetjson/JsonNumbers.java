@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import java.math.BigInteger;
+
+// Turns a decimal significand and exponent into the nearest double without going through a
+// String. Clinger's fast path covers values where both parts are exact doubles, Eisel-Lemire
+// (as in Go's strconv and fast_float) covers the rest. In the rare cases where Eisel-Lemire
+// can't decide, NaN is returned and the caller falls back to Double.parseDouble.
+final class JsonNumbers
+{
+    private static final int MIN_EXPONENT = -348;
+    private static final int MAX_EXPONENT = 347;
+
+    // 128-bit approximations (rounded down) of the powers of ten in [MIN_EXPONENT, MAX_EXPONENT],
+    // normalized so that the top bit of the high half is set.
+    private static final long[] POWERS_HIGH = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+    private static final long[] POWERS_LOW = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+
+    private static final double[] EXACT_POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    static
+    {
+        var mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        for (int exponent = MIN_EXPONENT; exponent <= MAX_EXPONENT; exponent++)
+        {
+            BigInteger mantissa;
+            if (exponent >= 0)
+            {
+                var power = BigInteger.TEN.pow(exponent);
+                int shift = power.bitLength() - 128;
+                mantissa = shift > 0 ? power.shiftRight(shift) : power.shiftLeft(-shift);
+            } else
+            {
+                var power = BigInteger.TEN.pow(-exponent);
+                mantissa = BigInteger.ONE.shiftLeft(127 + power.bitLength()).divide(power);
+            }
+            POWERS_HIGH[exponent - MIN_EXPONENT] = mantissa.shiftRight(64).longValue();
+            POWERS_LOW[exponent - MIN_EXPONENT] = mantissa.and(mask).longValue();
+        }
+    }
+
+    private JsonNumbers ()
+    {
+    }
+
+    // `significand` is read as unsigned (up to 19 digits fit).
+    static double to_double (final long significand, final int exponent, final boolean negative)
+    {
+        if (significand == 0)
+            return negative ? -0.0 : 0.0;
+        if (significand > 0 && significand <= (1L << 53) && exponent >= -22 && exponent <= 22)
+        {
+            double value = significand;
+            value = exponent < 0 ? value / EXACT_POWERS[-exponent] : value * EXACT_POWERS[exponent];
+            return negative ? -value : value;
+        }
+        return eisel_lemire(significand, exponent, negative);
+    }
+
+    private static double eisel_lemire (final long significand, final int exponent, final boolean negative)
+    {
+        if (exponent < MIN_EXPONENT || exponent > MAX_EXPONENT)
+            return Double.NaN;
+
+        int leading_zeros = Long.numberOfLeadingZeros(significand);
+        long mantissa = significand << leading_zeros;
+        long binary_exponent = ((217706L * exponent) >> 16) + 64 + 1023 - leading_zeros;
+
+        int index = exponent - MIN_EXPONENT;
+        long high = unsigned_multiply_high(mantissa, POWERS_HIGH[index]);
+        long low = mantissa * POWERS_HIGH[index];
+
+        // The truncated power may be off in the low bits; widen with the second half of the power.
+        if ((high & 0x1FF) == 0x1FF && Long.compareUnsigned(low + mantissa, mantissa) < 0)
+        {
+            long extra_high = unsigned_multiply_high(mantissa, POWERS_LOW[index]);
+            long extra_low = mantissa * POWERS_LOW[index];
+            long merged_high = high;
+            long merged_low = low + extra_high;
+            if (Long.compareUnsigned(merged_low, low) < 0)
+                merged_high++;
+            if ((merged_high & 0x1FF) == 0x1FF && merged_low + 1 == 0
+                    && Long.compareUnsigned(extra_low + mantissa, mantissa) < 0)
+                return Double.NaN;
+            high = merged_high;
+            low = merged_low;
+        }
+
+        long top_bit = high >>> 63;
+        long result = high >>> (top_bit + 9);
+        binary_exponent -= 1 ^ top_bit;
+
+        // Exactly halfway between two doubles: needs the full digits to break the tie.
+        if (low == 0 && (high & 0x1FF) == 0 && (result & 3) == 1)
+            return Double.NaN;
+
+        result += result & 1;
+        result >>>= 1;
+        if ((result >>> 53) > 0)
+        {
+            result >>>= 1;
+            binary_exponent++;
+        }
+        // Subnormals and overflow are left to the fallback.
+        if (binary_exponent <= 0 || binary_exponent >= 0x7FF)
+            return Double.NaN;
+
+        long bits = (binary_exponent << 52) | (result & 0x000FFFFFFFFFFFFFL);
+        if (negative)
+            bits |= 0x8000000000000000L;
+        return Double.longBitsToDouble(bits);
+    }
+
+    private static long unsigned_multiply_high (final long x, final long y)
+    {
+        return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+    }
+}
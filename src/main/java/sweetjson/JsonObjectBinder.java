@@ -24,31 +24,39 @@ public class JsonObjectBinder<T> implements JsonBinder<T>
 
     public T construct (final JsonValue value, final Typedef<T> definition, final Bag bag)
     {
-        try
-        {
-            Map<String, JsonValue> m_map = value.as_map();
-            var model = definition.create_instance();
-            var serializable_fields = JsonUtils.get_serializable_fields(definition.klass());
+        Map<String, JsonValue> m_map = value.as_map();
+        var model = definition.create_instance();
+        var metadata = BindingMetadata.of(definition);
 
-            for (var entry : m_map.entrySet())
+        for (var entry : m_map.entrySet())
+        {
+            if (!entry.getValue().is_null())
             {
-                if (!entry.getValue().is_null())
-                {
-                    var field = serializable_fields.get(entry.getKey());
-                    if (field != null)
-                    {
-                        field.setAccessible(true);
-                        var field_type = JsonUtils.get_field_typedef(field, definition);
-                        var binder = SweetJson.get_binder(field_type);
-                        field.set(model, binder.construct(entry.getValue(), field_type, bag));
-                    }
-                }
+                var field = metadata.field(entry.getKey());
+                if (field != null)
+                    field.bind(model, entry.getValue(), bag);
             }
+        }
+
+        return model;
+    }
+
+    @Override
+    public T read (final JsonTokenReader reader, final Typedef<T> definition, final Bag bag)
+    {
+        reader.expect(JsonTokenReader.Token.START_OBJECT);
+        var model = definition.create_instance();
+        var metadata = BindingMetadata.of(definition);
 
-            return model;
-        } catch (IllegalAccessException exception)
+        while (reader.next() == JsonTokenReader.Token.KEY)
         {
-            throw new RuntimeException(exception);
+            var field = metadata.field(reader.string_value());
+            if (field == null || reader.peek() == JsonTokenReader.Token.NULL)
+                reader.skip_value();
+            else
+                field.read(model, reader, bag);
         }
+
+        return model;
     }
 }
@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+public class JsonObjectSerializer<T> implements JsonSerializer<T>
+{
+    public static final JsonSerializer<?> INSTANCE = new JsonObjectSerializer<>();
+
+    @Override
+    public void serialize (final T value, final Typedef<T> definition, final JsonWriter writer, final Bag bag)
+    {
+        writer.begin_object();
+        for (var field : BindingMetadata.of(definition).fields())
+            field.write(value, writer, bag);
+        writer.end_object();
+    }
+}
@@ -16,16 +16,19 @@
 
 package sweetjson;
 
-import java.io.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 public class JsonParser
 {
-    private static final List<Character> whitespaces = List.of(' ', '\r', '\n', '\b', '\t', '\f');
-
     private enum ParserState
     {
         UNINITIATED,
@@ -33,50 +36,128 @@ public class JsonParser
         TERMINATED
     }
 
+    private static final int BUFFER_SIZE = 8192;
+
     private ParserState m_state = ParserState.UNINITIATED;
     private int m_depth = 0;
-    private final BufferedReader m_reader;
-
+    private final InputStream m_stream;
+    private final boolean m_owns_stream;
+    private final byte[] m_buffer;
+    private int m_limit;
+    private int m_position = 0;
+    private char[] m_scratch = new char[64];
+    private int m_scratch_length = 0;
+
+    // The number last read by scan_number. Both representations are kept so that either
+    // accessor is a plain field read; digits are only kept for BIG numbers.
+    private long m_number_long = 0;
+    private double m_number_double = 0;
+    private String m_number_digits = null;
+    private byte[] m_number_scratch = new byte[64];
+
+    // The file is streamed through a fixed-size buffer and closed once parse() is done with it.
     public JsonParser (Path file_path) throws IOException
     {
-        this(Files.readString(file_path));
+        this(Files.newInputStream(file_path), true);
     }
 
     public JsonParser (String json)
     {
-        json = json.strip();
-        var stream = new InputStreamReader(new ByteArrayInputStream(json.getBytes()), StandardCharsets.UTF_8);
-        m_reader = new BufferedReader(stream);
+        this(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // The array is parsed in place and must hold UTF-8 encoded JSON.
+    public JsonParser (byte[] json)
+    {
+        m_stream = null;
+        m_owns_stream = false;
+        m_buffer = json;
+        m_limit = json.length;
+    }
+
+    public JsonParser (InputStream stream)
+    {
+        this(Objects.requireNonNull(stream), false);
+    }
+
+    public JsonParser (ReadableByteChannel channel)
+    {
+        this(Channels.newInputStream(Objects.requireNonNull(channel)), false);
+    }
+
+    public JsonParser (Reader reader)
+    {
+        this(new ReaderInputStream(Objects.requireNonNull(reader)), false);
     }
 
-    private char read ()
+    private JsonParser (InputStream stream, boolean owns_stream)
     {
+        m_stream = stream;
+        m_owns_stream = owns_stream;
+        m_buffer = new byte[BUFFER_SIZE];
+        m_limit = 0;
+    }
+
+    // Refills the buffer from the underlying stream. Only called once everything
+    // buffered so far has been consumed, so nothing in the buffer is still needed.
+    private boolean fill ()
+    {
+        if (m_stream == null)
+            return false;
         try
         {
-            int read = m_reader.read();
-            throw_if(read == -1, "Attempted reading beyond EOF!");
-            return (char) read;
+            int read;
+            do read = m_stream.read(m_buffer, 0, m_buffer.length);
+            while (read == 0);
+            if (read == -1)
+                return false;
+            m_position = 0;
+            m_limit = read;
+            return true;
         } catch (IOException ioe)
         {
-            throw new RuntimeException("Failed to parse JSON!");
+            throw new RuntimeException(ioe);
         }
     }
 
-    private char peek ()
+    void close ()
     {
         try
         {
-            m_reader.mark(1);
-            char next = read();
-            m_reader.reset();
-            return next;
+            if (m_stream != null)
+                m_stream.close();
         } catch (IOException ioe)
         {
-            throw new RuntimeException("Failed to parse JSON!");
+            throw new RuntimeException(ioe);
         }
     }
 
-    private void throw_if (boolean condition, String message)
+    int position ()
+    {
+        return m_position;
+    }
+
+    // Only meaningful for parsers over an in-memory document.
+    void seek (final int position)
+    {
+        m_position = position;
+    }
+
+    // Structural characters, literals and numbers are all ASCII, so outside of
+    // strings a byte maps straight to a char.
+    char read ()
+    {
+        throw_if(m_position >= m_limit && !fill(), "Attempted reading beyond EOF!");
+        return (char) (m_buffer[m_position++] & 0xFF);
+    }
+
+    char peek ()
+    {
+        throw_if(m_position >= m_limit && !fill(), "Attempted reading beyond EOF!");
+        return (char) (m_buffer[m_position] & 0xFF);
+    }
+
+    static void throw_if (boolean condition, String message)
     {
         if (condition)
             throw new RuntimeException(message);
@@ -93,7 +174,7 @@ public class JsonParser
         return new RuntimeException(message.toString());
     }
 
-    private char read_or_throw (char... any_of)
+    char read_or_throw (char... any_of)
     {
         Objects.requireNonNull(any_of, "Unexpected null argument!");
         throw_if(any_of.length == 0, "Unexpected empty argument!");
@@ -106,7 +187,7 @@ public class JsonParser
         throw expected(any_of);
     }
 
-    private boolean read_on_match (char ch)
+    boolean read_on_match (char ch)
     {
         if (peek() == ch)
         {
@@ -118,24 +199,21 @@ public class JsonParser
 
     private String read_string (int length)
     {
-        var builder = new StringBuilder();
-        for (int i = 0; i < length; i++)
-            builder.append(read());
-        return builder.toString();
+        if (m_position + length > m_limit)
+        {
+            var builder = new StringBuilder(length);
+            for (int i = 0; i < length; i++)
+                builder.append(read());
+            return builder.toString();
+        }
+        var string = new String(m_buffer, m_position, length, StandardCharsets.UTF_8);
+        m_position += length;
+        return string;
     }
 
-    private boolean eof_reached ()
+    boolean eof_reached ()
     {
-        try
-        {
-            m_reader.mark(1);
-            var next = m_reader.read();
-            m_reader.reset();
-            return next == -1;
-        } catch (IOException ioe)
-        {
-            throw new RuntimeException(ioe);
-        }
+        return m_position >= m_limit && !fill();
     }
 
     private void push_depth ()
@@ -154,14 +232,21 @@ public class JsonParser
         m_state = m_depth == 0 ? ParserState.TERMINATED : m_state;
     }
 
-    private void consume_whitespaces ()
+    private static boolean is_whitespace (byte ch)
     {
-        if (eof_reached()) return;
-        while (whitespaces.contains(peek()))
-            read();
+        return ch == ' ' || ch == '\n' || ch == '\r' || ch == '\t' || ch == '\b' || ch == '\f';
     }
 
-    private JsonValue.JsonType get_next_value_type ()
+    void consume_whitespaces ()
+    {
+        do
+        {
+            while (m_position < m_limit && is_whitespace(m_buffer[m_position]))
+                m_position++;
+        } while (m_position == m_limit && fill());
+    }
+
+    JsonValue.JsonType get_next_value_type ()
     {
         char next = peek();
         switch (next)
@@ -197,44 +282,151 @@ public class JsonParser
                 };
     }
 
-    private JsonValue parse_string ()
+    private void append (final char ch)
+    {
+        if (m_scratch_length == m_scratch.length)
+            m_scratch = Arrays.copyOf(m_scratch, m_scratch_length * 2);
+        m_scratch[m_scratch_length++] = ch;
+    }
+
+    private void append_escape ()
+    {
+        switch (read())
+        {
+            case '\\' -> append('\\');
+            case '/' -> append('/');
+            case 'n' -> append('\n');
+            case 'b' -> append('\b');
+            case 'f' -> append('\f');
+            case 'r' -> append('\r');
+            case '"' -> append('"');
+            case 't' -> append('\t');
+            case 'u' -> append((char) Integer.parseInt(read_string(4), 16));
+            default -> throw new RuntimeException("Unknown escape character!");
+        }
+    }
+
+    // Decodes one multi-byte UTF-8 sequence, rejecting overlong forms, surrogates and
+    // anything past U+10FFFF.
+    private void append_utf8 (final int lead)
+    {
+        int code_point, remaining, minimum;
+        if ((lead & 0xE0) == 0xC0)
+        {
+            code_point = lead & 0x1F;
+            remaining = 1;
+            minimum = 0x80;
+        } else if ((lead & 0xF0) == 0xE0)
+        {
+            code_point = lead & 0x0F;
+            remaining = 2;
+            minimum = 0x800;
+        } else if ((lead & 0xF8) == 0xF0)
+        {
+            code_point = lead & 0x07;
+            remaining = 3;
+            minimum = 0x10000;
+        } else throw new RuntimeException("Invalid UTF-8 sequence!");
+
+        while (remaining-- > 0)
+        {
+            int next = read();
+            throw_if((next & 0xC0) != 0x80, "Invalid UTF-8 sequence!");
+            code_point = (code_point << 6) | (next & 0x3F);
+        }
+        throw_if(code_point < minimum || code_point > Character.MAX_CODE_POINT
+                || (code_point >= Character.MIN_SURROGATE && code_point <= Character.MAX_SURROGATE),
+                "Invalid UTF-8 sequence!");
+        if (Character.isBmpCodePoint(code_point))
+            append((char) code_point);
+        else
+        {
+            append(Character.highSurrogate(code_point));
+            append(Character.lowSurrogate(code_point));
+        }
+    }
+
+    String scan_string ()
     {
-        throw_if(m_state != ParserState.INITIATED, "Invalid parser state!");
-        StringBuilder builder = new StringBuilder();
         read_or_throw('"'); // consume " at the beginning
+        int start = m_position;
+        while (m_position < m_limit)
+        {
+            byte current = m_buffer[m_position];
+            if (current == '"')
+            {
+                // Plain ASCII strings are Latin-1 as well, which lets String keep the
+                // bytes in its compact representation without decoding them.
+                m_position++;
+                return new String(m_buffer, start, m_position - start - 1, StandardCharsets.ISO_8859_1);
+            }
+            if (current == '\\' || current < 0)
+                break;
+            m_position++;
+        }
+        return scan_string_slow(start);
+    }
+
+    // Handles escapes, non-ASCII input and strings that continue past the buffered input.
+    private String scan_string_slow (final int start)
+    {
+        m_scratch_length = 0;
+        for (int i = start; i < m_position; i++)
+            append((char) m_buffer[i]);
         while (true)
         {
-            char current = read();
-            switch (current)
+            while (m_position < m_limit)
             {
-                case '\\':
-                    switch (read())
-                    {
-                        case '\\' -> builder.append('\\');
-                        case 'n' -> builder.append('\n');
-                        case 'b' -> builder.append('\b');
-                        case 'f' -> builder.append('\f');
-                        case 'r' -> builder.append('\r');
-                        case '"' -> builder.append('"');
-                        case 't' -> builder.append('\t');
-                        case 'u' -> {
-                            var code_point_str = String.valueOf(read()) + read() + read() + read();
-                            int code_point = Integer.parseInt(code_point_str, 16);
-                            builder.appendCodePoint(code_point);
-                        }
-                        default -> throw new RuntimeException("Unknown escape character!");
-                    }
+                byte current = m_buffer[m_position];
+                if (current == '"' || current == '\\' || current < 0)
+                    break;
+                append((char) current);
+                m_position++;
+            }
+            char current = read();
+            if (current == '"')
+                return new String(m_scratch, 0, m_scratch_length);
+            if (current == '\\')
+                append_escape();
+            else if (current < 0x80)
+                append(current);
+            else
+                append_utf8(current);
+        }
+    }
 
+    // Validates a string without building it: escapes and UTF-8 sequences are checked by the same
+    // code as in scan_string, decoding into the scratch buffer, which is dropped right away.
+    void skip_string ()
+    {
+        read_or_throw('"');
+        while (true)
+        {
+            while (m_position < m_limit)
+            {
+                byte current = m_buffer[m_position];
+                if (current == '"' || current == '\\' || current < 0)
                     break;
-                case '"':
-                    return new JsonValue(builder.toString());
-                default:
-                    builder.append(current);
+                m_position++;
             }
+            char current = read();
+            if (current == '"')
+                return;
+            m_scratch_length = 0;
+            if (current == '\\')
+                append_escape();
+            else if (current >= 0x80)
+                append_utf8(current);
         }
     }
 
-    private boolean is_numeric (char ch)
+    private JsonValue parse_string ()
+    {
+        throw_if(m_state != ParserState.INITIATED, "Invalid parser state!");
+        return new JsonValue(scan_string());
+    }
+
+    private static boolean is_numeric (int ch)
     {
         if (ch == '+' || ch == '-')
             return true;
@@ -245,34 +437,207 @@ public class JsonParser
         return false;
     }
 
+    private static boolean is_digit (final int ch)
+    {
+        return ch >= '0' && ch <= '9';
+    }
+
+    // Reads a number, leaving its value in number_long()/number_double() (and number_digits()
+    // for BIG numbers). Numbers are decoded straight from the input bytes; only BIG numbers
+    // and numbers split across two reads from a stream are copied.
+    JsonValue.NumberKind scan_number ()
+    {
+        int start = m_position;
+        while (m_position < m_limit && is_numeric(m_buffer[m_position]))
+            m_position++;
+        if (m_position < m_limit || m_stream == null)
+            return decode_number(m_buffer, start, m_position, false);
+        return decode_number(m_number_scratch, 0, gather_number(start), false);
+    }
+
+    // Validates a number without decoding it.
+    void skip_number ()
+    {
+        int start = m_position;
+        while (m_position < m_limit && is_numeric(m_buffer[m_position]))
+            m_position++;
+        if (m_position < m_limit || m_stream == null)
+            decode_number(m_buffer, start, m_position, true);
+        else
+            decode_number(m_number_scratch, 0, gather_number(start), true);
+    }
+
+    // The number runs up to the end of the buffer: copies it into m_number_scratch across refills.
+    private int gather_number (int start)
+    {
+        int length = 0;
+        while (true)
+        {
+            int count = m_position - start;
+            if (length + count > m_number_scratch.length)
+                m_number_scratch = Arrays.copyOf(m_number_scratch, Math.max(m_number_scratch.length * 2, length + count));
+            System.arraycopy(m_buffer, start, m_number_scratch, length, count);
+            length += count;
+            if (m_position < m_limit || !fill())
+                return length;
+            start = m_position;
+            while (m_position < m_limit && is_numeric(m_buffer[m_position]))
+                m_position++;
+        }
+    }
+
+    // Checks bytes[start, end) against the JSON number grammar and, unless only validating,
+    // decodes it. Integers that fit are accumulated into a long; other numbers with up to 17
+    // significant digits go through JsonNumbers; the rest are kept as digits (BIG).
+    private JsonValue.NumberKind decode_number (final byte[] bytes, final int start, final int end,
+                                                final boolean validate_only)
+    {
+        int i = start;
+        boolean negative = i < end && bytes[i] == '-';
+        if (negative)
+            i++;
+        throw_if(i == end || !is_digit(bytes[i]), "Invalid number!");
+        int integer_start = i;
+        if (bytes[i] == '0')
+            i++;
+        else
+            while (i < end && is_digit(bytes[i]))
+                i++;
+        int fraction_start = i, fraction_end = i;
+        if (i < end && bytes[i] == '.')
+        {
+            fraction_start = ++i;
+            while (i < end && is_digit(bytes[i]))
+                i++;
+            throw_if(i == fraction_start, "Invalid number!");
+            fraction_end = i;
+        }
+        int exponent = 0;
+        boolean has_exponent = i < end && (bytes[i] == 'e' || bytes[i] == 'E');
+        if (has_exponent)
+        {
+            i++;
+            boolean negative_exponent = i < end && bytes[i] == '-';
+            if (i < end && (bytes[i] == '-' || bytes[i] == '+'))
+                i++;
+            int exponent_start = i;
+            while (i < end && is_digit(bytes[i]))
+            {
+                // Saturates; anything this large over- or underflows regardless.
+                if (exponent < 100_000)
+                    exponent = exponent * 10 + (bytes[i] - '0');
+                i++;
+            }
+            throw_if(i == exponent_start, "Invalid number!");
+            if (negative_exponent)
+                exponent = -exponent;
+        }
+        throw_if(i != end, "Invalid number!");
+        if (validate_only)
+            return null;
+
+        // Up to 19 significant digits fit in an unsigned long; further digits only shift the exponent.
+        long significand = 0;
+        int significant = 0, dropped = 0;
+        for (int j = integer_start; j < fraction_end; j++)
+        {
+            int digit = bytes[j] - '0';
+            if (bytes[j] == '.' || (significant == 0 && digit == 0))
+                continue;
+            if (significant < 19)
+                significand = significand * 10 + digit;
+            else
+                dropped++;
+            significant++;
+        }
+
+        boolean integral = !has_exponent && fraction_start == fraction_end;
+        if (integral && significant <= 19
+                && (negative ? Long.compareUnsigned(significand, Long.MIN_VALUE) <= 0 : significand >= 0))
+        {
+            m_number_long = negative ? -significand : significand;
+            m_number_double = m_number_long;
+            m_number_digits = null;
+            return JsonValue.NumberKind.LONG;
+        }
+
+        if (!integral && significant <= 17)
+        {
+            double value = JsonNumbers.to_double(significand, exponent - (fraction_end - fraction_start) + dropped, negative);
+            if (!Double.isNaN(value))
+            {
+                m_number_double = value;
+                m_number_long = (long) value;
+                m_number_digits = null;
+                return JsonValue.NumberKind.DOUBLE;
+            }
+        }
+
+        // Either an integer beyond the range of long or a decimal with more digits than a double
+        // holds, so the text is kept; or the rare double that needs the full digits to round.
+        var text = new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+        m_number_double = Double.parseDouble(text);
+        m_number_long = (long) m_number_double;
+        m_number_digits = integral || significant > 17 ? text : null;
+        return m_number_digits != null ? JsonValue.NumberKind.BIG : JsonValue.NumberKind.DOUBLE;
+    }
+
+    long number_long ()
+    {
+        return m_number_long;
+    }
+
+    double number_double ()
+    {
+        return m_number_double;
+    }
+
+    String number_digits ()
+    {
+        return m_number_digits;
+    }
+
+    JsonValue scan_number_value ()
+    {
+        var kind = scan_number();
+        return JsonValue.number(kind, m_number_long, m_number_double, m_number_digits);
+    }
+
     private JsonValue parse_number ()
     {
         throw_if(m_state != ParserState.INITIATED, "Invalid parser state!");
-        StringBuilder builder = new StringBuilder();
-        while (is_numeric(peek()))
-            builder.append(read());
-        return new JsonValue(Double.parseDouble(builder.toString()));
+        return scan_number_value();
     }
 
-    private JsonValue parse_boolean ()
+    boolean scan_boolean ()
     {
-        throw_if(m_state != ParserState.INITIATED, "Invalid parser state!");
         String literal = read_string(4);
         if (literal.equals("true"))
-            return new JsonValue(Boolean.TRUE);
+            return true;
         literal += read();
         if (literal.equals("false"))
-            return new JsonValue(Boolean.FALSE);
+            return false;
         throw new RuntimeException(String.format("Invalid literal `%s`!", literal));
     }
 
-    private JsonValue parse_null ()
+    private JsonValue parse_boolean ()
     {
         throw_if(m_state != ParserState.INITIATED, "Invalid parser state!");
+        return new JsonValue(scan_boolean());
+    }
+
+    void scan_null ()
+    {
         String literal = read_string(4);
-        if (literal.equals("null"))
-            return new JsonValue(null);
-        throw new RuntimeException(String.format("Invalid literal `%s`!", literal));
+        if (!literal.equals("null"))
+            throw new RuntimeException(String.format("Invalid literal `%s`!", literal));
+    }
+
+    private JsonValue parse_null ()
+    {
+        throw_if(m_state != ParserState.INITIATED, "Invalid parser state!");
+        scan_null();
+        return new JsonValue(null);
     }
 
     private enum ArrayState
@@ -392,57 +757,181 @@ public class JsonParser
         }
     }
 
+    // Parses the one value between `start` and `end` of an in-memory document, with nothing but
+    // whitespace around it. ParallelArrayParser calls it for each array element it found.
+    JsonValue parse_element (final int start, final int end)
+    {
+        m_position = start;
+        m_limit = end;
+        m_depth = 0;
+        // An element is inside the array being split, so even a scalar one is a valid value here.
+        m_state = ParserState.INITIATED;
+        consume_whitespaces();
+        var type = m_position < m_limit ? get_next_value_type() : JsonValue.JsonType.UNKNOWN;
+        throw_if(type == JsonValue.JsonType.UNKNOWN, "UNKNOWN value type!");
+        var value = parse_json_value(type);
+        consume_whitespaces();
+        throw_if(m_position != m_limit, "Invalid JSON input!");
+        return value;
+    }
+
     public JsonValue parse ()
     {
         try
         {
+            consume_whitespaces();
             var value_type = get_next_value_type();
             throw_if(value_type == null, "Invalid JSON input!");
             var value = value_type == JsonValue.JsonType.OBJECT ? parse_object() : parse_array();
+            consume_whitespaces();
             var bad_state = m_state != ParserState.TERMINATED || !eof_reached();
             throw_if(bad_state, "Invalid JSON input!");
             return value;
         } catch (RuntimeException re)
         {
             String message = re.getMessage();
-            String vicinity = read_string(20);
+            String vicinity = read_string(Math.min(20, m_limit - m_position));
             if (!vicinity.isEmpty())
                 message += "\nFailed before reaching here: `" + vicinity + "`";
             System.err.println(message);
             throw re;
+        } finally
+        {
+            if (m_owns_stream)
+                close();
         }
     }
 
-    private static void dispose (final JsonParser parser)
+    public static JsonValue parse (final Path file_path)
     {
         try
         {
-            if (parser != null)
-                parser.m_reader.close();
+            return (new JsonParser(file_path)).parse();
         } catch (IOException ioe)
         {
             throw new RuntimeException(ioe);
         }
     }
 
-    public static JsonValue parse (final Path file_path)
+    // Maps the file into memory and reads it through MappedFileInputStream: the whole file is never
+    // loaded onto the heap, but it still passes through the parser's buffer one chunk at a time.
+    public static JsonValue parse_mapped (final Path file_path)
     {
-        JsonParser parser = null;
         try
         {
-            parser = new JsonParser(file_path);
-            return parser.parse();
+            return (new JsonParser(new MappedFileInputStream(file_path), true)).parse();
         } catch (IOException ioe)
         {
             throw new RuntimeException(ioe);
-        } finally
-        {
-            dispose(parser);
         }
     }
 
+    // Documents already in memory are indexed in bulk first (see IndexedParser), which skips the
+    // byte-by-byte walk over whitespace and structure.
     public static JsonValue parse (final String json)
     {
-        return (new JsonParser(json)).parse();
+        return IndexedParser.parse(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static JsonValue parse (final byte[] json)
+    {
+        return IndexedParser.parse(json);
+    }
+
+    // Top-level arrays are parsed with their elements spread over the pool, in order. Other
+    // documents are parsed as usual.
+    public static JsonValue parse_parallel (final byte[] json, final ForkJoinPool pool)
+    {
+        return ParallelArrayParser.parse(json, Objects.requireNonNull(pool));
+    }
+
+    public static JsonValue parse_parallel (final byte[] json)
+    {
+        return parse_parallel(json, ForkJoinPool.commonPool());
+    }
+
+    public static JsonValue parse_parallel (final String json)
+    {
+        return parse_parallel(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static JsonValue parse_parallel (final Path file_path)
+    {
+        try
+        {
+            return parse_parallel(Files.readAllBytes(file_path));
+        } catch (IOException ioe)
+        {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    // Only indexes the document up front; objects, arrays and scalars are decoded when accessed.
+    public static JsonValue parse_lazy (final byte[] json)
+    {
+        return LazyDocument.parse(json);
+    }
+
+    public static JsonValue parse_lazy (final String json)
+    {
+        return LazyDocument.parse(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static JsonValue parse (final InputStream stream)
+    {
+        return (new JsonParser(stream)).parse();
+    }
+
+    public static JsonValue parse (final Reader reader)
+    {
+        return (new JsonParser(reader)).parse();
+    }
+
+    public static JsonValue parse (final ReadableByteChannel channel)
+    {
+        return (new JsonParser(channel)).parse();
+    }
+
+    public static JsonTokenReader tokens (final Path file_path)
+    {
+        try
+        {
+            return new JsonTokenReader(new JsonParser(file_path));
+        } catch (IOException ioe)
+        {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    public static JsonTokenReader tokens (final InputStream stream)
+    {
+        return new JsonTokenReader(new JsonParser(stream));
+    }
+
+    public static JsonTokenReader tokens (final Reader reader)
+    {
+        return new JsonTokenReader(new JsonParser(reader));
+    }
+
+    public static JsonTokenReader tokens (final String json)
+    {
+        return new JsonTokenReader(new JsonParser(json));
+    }
+
+    // Newline-delimited JSON: one value per line. See JsonLinesReader.
+    public static JsonLinesReader lines (final Path file_path)
+    {
+        try
+        {
+            return new JsonLinesReader(Files.newInputStream(file_path));
+        } catch (IOException ioe)
+        {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    public static JsonLinesReader lines (final InputStream stream)
+    {
+        return new JsonLinesReader(stream);
     }
 }
@@ -16,6 +16,9 @@
 
 package sweetjson;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
 public class JsonPrimitiveBinder<T> implements JsonBinder<T>
 {
     public static final JsonBinder<?> INSTANCE = new JsonPrimitiveBinder<>();
@@ -34,4 +37,30 @@ public class JsonPrimitiveBinder<T> implements JsonBinder<T>
                     default -> throw new RuntimeException("Attempted to construct primitive from `" + (type) + "`!");
                 };
     }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T read (final JsonTokenReader reader, final Typedef<T> definition, final Bag bag)
+    {
+        var token = reader.next();
+        return switch (token)
+                {
+                    case STRING -> (T) reader.string_value();
+                    case NUMBER -> (T) read_number(reader, definition.klass());
+                    case BOOL -> (T) Boolean.valueOf(reader.bool_value());
+                    case NULL -> null;
+                    default -> throw new RuntimeException("Attempted to construct primitive from `" + (token) + "`!");
+                };
+    }
+
+    private static Object read_number (final JsonTokenReader reader, final Class<?> klass)
+    {
+        if (klass == BigDecimal.class)
+            return reader.big_decimal_value();
+        if (klass == BigInteger.class)
+            return reader.big_decimal_value().toBigInteger();
+        if (klass == long.class || klass == Long.class)
+            return reader.long_value();
+        return JsonUtils.get_number_field(reader.number_value(), klass);
+    }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+public class JsonPrimitiveSerializer<T> implements JsonSerializer<T>
+{
+    public static final JsonSerializer<?> INSTANCE = new JsonPrimitiveSerializer<>();
+
+    @Override
+    public void serialize (final T value, final Typedef<T> definition, final JsonWriter writer, final Bag bag)
+    {
+        // Characters are numbers on the binding side as well.
+        if (value instanceof String)
+            writer.value((String) value);
+        else if (value instanceof Boolean)
+            writer.value((boolean) (Boolean) value);
+        else if (value instanceof Character)
+            writer.value((long) (Character) value);
+        else if (value instanceof Double)
+            writer.value((double) (Double) value);
+        else if (value instanceof Float)
+            writer.value((float) (Float) value);
+        else if (value instanceof BigDecimal)
+            writer.value((BigDecimal) value);
+        else if (value instanceof BigInteger)
+            writer.value(new BigDecimal((BigInteger) value));
+        else if (value instanceof Number)
+            writer.value(((Number) value).longValue());
+        else
+            throw new RuntimeException("Attempted to write `" + value.getClass().getName() + "` as a primitive!");
+    }
+}
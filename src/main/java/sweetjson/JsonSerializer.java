@@ -0,0 +1,25 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+// Counterpart of JsonBinder: writes a value of type T. Never called with null; the caller
+// writes nulls itself.
+@FunctionalInterface
+public interface JsonSerializer<T>
+{
+    void serialize (final T value, final Typedef<T> definition, final JsonWriter writer, final Bag bag);
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static sweetjson.JsonParser.throw_if;
+
+public class JsonTokenReader implements AutoCloseable
+{
+    public enum Token
+    {
+        START_OBJECT,
+        END_OBJECT,
+        START_ARRAY,
+        END_ARRAY,
+        KEY,
+        STRING,
+        NUMBER,
+        BOOL,
+        NULL,
+        END_DOCUMENT
+    }
+
+    private enum Scope
+    {
+        EMPTY_ARRAY,
+        NONEMPTY_ARRAY,
+        EMPTY_OBJECT,
+        DANGLING_KEY,
+        NONEMPTY_OBJECT
+    }
+
+    private final JsonParser m_parser;
+    private Scope[] m_stack = new Scope[32];
+    private int m_depth = 0;
+    private boolean m_started = false;
+    private Token m_peeked = null;
+    private boolean m_skipping = false;
+
+    private String m_string = null;
+    private JsonValue.NumberKind m_number_kind = null;
+    private double m_number = 0;
+    private long m_long = 0;
+    private String m_digits = null;
+    private boolean m_bool = false;
+
+    JsonTokenReader (final JsonParser parser)
+    {
+        m_parser = parser;
+    }
+
+    public Token peek ()
+    {
+        if (m_peeked == null)
+            m_peeked = advance();
+        return m_peeked;
+    }
+
+    public Token next ()
+    {
+        var token = peek();
+        m_peeked = null;
+        return token;
+    }
+
+    // Valid right after next() returned KEY or STRING.
+    public String string_value ()
+    {
+        return m_string;
+    }
+
+    // Valid right after next() returned NUMBER.
+    public double number_value ()
+    {
+        return m_number;
+    }
+
+    // Valid right after next() returned NUMBER; exact for integers in the range of long.
+    public long long_value ()
+    {
+        return m_long;
+    }
+
+    // Valid right after next() returned NUMBER.
+    public BigDecimal big_decimal_value ()
+    {
+        return m_digits != null ? new BigDecimal(m_digits)
+                : m_number_kind == JsonValue.NumberKind.LONG ? BigDecimal.valueOf(m_long) : BigDecimal.valueOf(m_number);
+    }
+
+    // Valid right after next() returned BOOL.
+    public boolean bool_value ()
+    {
+        return m_bool;
+    }
+
+    // Consumes the next token, failing unless it is `expected`.
+    public void expect (final Token expected)
+    {
+        var token = next();
+        throw_if(token != expected, "Expected " + expected + ", found " + token + "!");
+    }
+
+    public double next_number ()
+    {
+        expect(Token.NUMBER);
+        return m_number;
+    }
+
+    public long next_long ()
+    {
+        expect(Token.NUMBER);
+        return m_long;
+    }
+
+    public boolean next_bool ()
+    {
+        expect(Token.BOOL);
+        return m_bool;
+    }
+
+    public int depth ()
+    {
+        return m_depth;
+    }
+
+    // Skips the next value, including everything nested under it, without materializing it.
+    public void skip_value ()
+    {
+        boolean started = m_peeked == Token.START_OBJECT || m_peeked == Token.START_ARRAY;
+        int depth = started ? m_depth - 1 : m_depth;
+        m_skipping = true;
+        try
+        {
+            var token = next();
+            throw_if(token == Token.KEY || token == Token.END_OBJECT || token == Token.END_ARRAY
+                    || token == Token.END_DOCUMENT, "Expected a value, found " + token + "!");
+            while (m_depth > depth)
+                advance();
+        } finally
+        {
+            m_skipping = false;
+        }
+    }
+
+    // Reads the next value into a JsonValue tree.
+    public JsonValue read_value ()
+    {
+        var token = next();
+        switch (token)
+        {
+            case START_OBJECT:
+            {
+                var map = new HashMap<String, JsonValue>();
+                while (next() == Token.KEY)
+                {
+                    var key = m_string;
+                    map.put(key, read_value());
+                }
+                return new JsonValue(map);
+            }
+            case START_ARRAY:
+            {
+                var list = new ArrayList<JsonValue>();
+                while (peek() != Token.END_ARRAY)
+                    list.add(read_value());
+                next();
+                return new JsonValue(list);
+            }
+            case STRING:
+                return new JsonValue(m_string);
+            case NUMBER:
+                return JsonValue.number(m_number_kind, m_long, m_number, m_digits);
+            case BOOL:
+                return new JsonValue(m_bool);
+            case NULL:
+                return new JsonValue(null);
+            default:
+                throw new RuntimeException("Expected a value, found " + token + "!");
+        }
+    }
+
+    @Override
+    public void close ()
+    {
+        m_parser.close();
+    }
+
+    private void push (final Scope scope)
+    {
+        if (m_depth == m_stack.length)
+            m_stack = Arrays.copyOf(m_stack, m_depth * 2);
+        m_stack[m_depth++] = scope;
+    }
+
+    private Token pop (final Token token)
+    {
+        m_depth--;
+        return token;
+    }
+
+    private Token advance ()
+    {
+        m_parser.consume_whitespaces();
+        if (m_depth == 0)
+        {
+            if (m_started)
+            {
+                throw_if(!m_parser.eof_reached(), "Invalid JSON input!");
+                return Token.END_DOCUMENT;
+            }
+            m_started = true;
+            var type = m_parser.get_next_value_type();
+            throw_if(type != JsonValue.JsonType.OBJECT && type != JsonValue.JsonType.ARRAY, "Invalid JSON input!");
+            return begin_value();
+        }
+
+        switch (m_stack[m_depth - 1])
+        {
+            case EMPTY_ARRAY:
+                if (m_parser.read_on_match(']'))
+                    return pop(Token.END_ARRAY);
+                m_stack[m_depth - 1] = Scope.NONEMPTY_ARRAY;
+                return begin_value();
+            case NONEMPTY_ARRAY:
+                if (m_parser.read_or_throw(']', ',') == ']')
+                    return pop(Token.END_ARRAY);
+                m_parser.consume_whitespaces();
+                return begin_value();
+            case EMPTY_OBJECT:
+                if (m_parser.read_on_match('}'))
+                    return pop(Token.END_OBJECT);
+                return begin_key();
+            case NONEMPTY_OBJECT:
+                if (m_parser.read_or_throw(',', '}') == '}')
+                    return pop(Token.END_OBJECT);
+                m_parser.consume_whitespaces();
+                return begin_key();
+            case DANGLING_KEY:
+                m_parser.read_or_throw(':');
+                m_parser.consume_whitespaces();
+                m_stack[m_depth - 1] = Scope.NONEMPTY_OBJECT;
+                return begin_value();
+        }
+        throw new RuntimeException("Unexpected reader state!");
+    }
+
+    private Token begin_key ()
+    {
+        if (m_skipping)
+            m_parser.skip_string();
+        else
+        {
+            m_string = m_parser.scan_string();
+            throw_if(m_string.isEmpty(), "Empty key not allowed!");
+        }
+        m_stack[m_depth - 1] = Scope.DANGLING_KEY;
+        return Token.KEY;
+    }
+
+    private Token begin_value ()
+    {
+        switch (m_parser.get_next_value_type())
+        {
+            case OBJECT:
+                m_parser.read();
+                push(Scope.EMPTY_OBJECT);
+                return Token.START_OBJECT;
+            case ARRAY:
+                m_parser.read();
+                push(Scope.EMPTY_ARRAY);
+                return Token.START_ARRAY;
+            case STRING:
+                if (m_skipping)
+                    m_parser.skip_string();
+                else
+                    m_string = m_parser.scan_string();
+                return Token.STRING;
+            case NUMBER:
+                if (m_skipping)
+                    m_parser.skip_number();
+                else
+                {
+                    m_number_kind = m_parser.scan_number();
+                    m_number = m_parser.number_double();
+                    m_long = m_parser.number_long();
+                    m_digits = m_parser.number_digits();
+                }
+                return Token.NUMBER;
+            case BOOL:
+                m_bool = m_parser.scan_boolean();
+                return Token.BOOL;
+            case NULL:
+                m_parser.scan_null();
+                return Token.NULL;
+            default:
+                throw new RuntimeException("UNKNOWN value type!");
+        }
+    }
+}
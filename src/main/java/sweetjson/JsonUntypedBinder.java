@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Binds values declared as plain Object, such as the elements of raw collections and maps, to
+// their natural Java form: String, Boolean, Long, Double or BigDecimal (see JsonValue.as_object),
+// List<Object> for arrays and Map<String, Object> for objects, nested all the way down.
+public class JsonUntypedBinder<T> implements JsonBinder<T>
+{
+    public static final JsonBinder<?> INSTANCE = new JsonUntypedBinder<>();
+
+    private static Object natural (final JsonValue value)
+    {
+        return switch (value.get_type())
+                {
+                    case ARRAY -> {
+                        var list = value.as_list();
+                        List<Object> model = new ArrayList<>(list.size());
+                        for (var element : list)
+                            model.add(natural(element));
+                        yield model;
+                    }
+                    case OBJECT -> {
+                        var map = value.as_map();
+                        Map<String, Object> model = new LinkedHashMap<>(JsonMapBinder.capacity(map.size()));
+                        for (var entry : map.entrySet())
+                            model.put(entry.getKey(), natural(entry.getValue()));
+                        yield model;
+                    }
+                    default -> value.as_object();
+                };
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T construct (final JsonValue value, final Typedef<T> definition, final Bag bag)
+    {
+        return (T) natural(value);
+    }
+}
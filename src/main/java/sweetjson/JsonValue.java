@@ -16,6 +16,8 @@
 
 package sweetjson;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -34,19 +36,77 @@ public class JsonValue
         NULL
     }
 
-    private final Object m_value;
+    // How a NUMBER is held: LONG for integers that fit, DOUBLE for everything else except BIG,
+    // which keeps the digits of integers beyond long and of decimals with more than 17
+    // significant digits.
+    public enum NumberKind
+    {
+        LONG,
+        DOUBLE,
+        BIG
+    }
+
+    private Object m_value;
     private final JsonType m_type;
 
+    // Numbers are stored unboxed, as both a long and a double so that either accessor is a
+    // plain field read. m_value holds the digits of BIG numbers.
+    private NumberKind m_number_kind = null;
+    private long m_long = 0;
+    private double m_double = 0;
+
     private Map<String, JsonValue> m_as_map = null;
     private List<JsonValue> m_as_list = null;
 
-    JsonValue (final Object value)
+    // Set while this value still lives only in the document index (see JsonParser.parse_lazy).
+    // Lazy values can be shared between threads (see ParallelBinder): the other fields are filled
+    // under the document's lock and this one is cleared last, so a thread that reads null also
+    // sees them.
+    private volatile LazyDocument m_document = null;
+    private int m_entry = 0;
+
+    JsonValue (final LazyDocument document, final int entry)
+    {
+        m_document = document;
+        m_entry = entry;
+        m_type = document.type_of(entry);
+    }
+
+    public JsonValue (final long number)
+    {
+        m_type = JsonType.NUMBER;
+        set_number(NumberKind.LONG, number, number, null);
+    }
+
+    public JsonValue (final double number)
+    {
+        m_type = JsonType.NUMBER;
+        set_number(NumberKind.DOUBLE, (long) number, number, null);
+    }
+
+    private JsonValue (final NumberKind kind, final long long_value, final double double_value, final String digits)
+    {
+        m_type = JsonType.NUMBER;
+        set_number(kind, long_value, double_value, digits);
+    }
+
+    static JsonValue number (final NumberKind kind, final long long_value, final double double_value, final String digits)
+    {
+        return new JsonValue(kind, long_value, double_value, digits);
+    }
+
+    // Also used to build documents by hand: `value` is a String, Number, Boolean, null,
+    // Map<String, JsonValue> or List<JsonValue>.
+    public JsonValue (final Object value)
     {
         m_value = value;
         if (value instanceof String)
             m_type = JsonType.STRING;
-        else if (value instanceof Double)
+        else if (value instanceof Number)
+        {
             m_type = JsonType.NUMBER;
+            set_number((Number) value);
+        }
         else if (value instanceof Boolean)
             m_type = JsonType.BOOL;
         else if (value == null)
@@ -62,9 +122,50 @@ public class JsonValue
         } else throw new RuntimeException("Incompatible value type `" + value.getClass().getName() + "`");
     }
 
+    private void set_number (final NumberKind kind, final long long_value, final double double_value, final String digits)
+    {
+        m_number_kind = kind;
+        m_long = long_value;
+        m_double = double_value;
+        m_value = digits;
+    }
+
+    private void set_number (final Number number)
+    {
+        if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte)
+            set_number(NumberKind.LONG, number.longValue(), number.longValue(), null);
+        else if (number instanceof BigInteger || number instanceof BigDecimal)
+            set_number(NumberKind.BIG, number.longValue(), number.doubleValue(), number.toString());
+        else
+            set_number(NumberKind.DOUBLE, number.longValue(), number.doubleValue(), null);
+    }
+
     public boolean is_null ()
     {
-        return as_object() == null;
+        return m_type == JsonType.NULL;
+    }
+
+    private void materialize ()
+    {
+        var document = m_document;
+        if (document == null)
+            return;
+        synchronized (document)
+        {
+            // Another thread may have materialized it while this one waited for the lock.
+            if (m_document == null)
+                return;
+            m_value = document.materialize(m_entry);
+            if (m_type == JsonType.NUMBER)
+            {
+                var number = (JsonValue) m_value;
+                set_number(number.m_number_kind, number.m_long, number.m_double, (String) number.m_value);
+            } else if (m_type == JsonType.OBJECT)
+                m_as_map = (Map<String, JsonValue>) m_value;
+            else if (m_type == JsonType.ARRAY)
+                m_as_list = (List<JsonValue>) m_value;
+            m_document = null;
+        }
     }
 
     private void verify_type_or_throw (final JsonType type, final String type_str)
@@ -76,25 +177,59 @@ public class JsonValue
     public final List<JsonValue> as_list ()
     {
         verify_type_or_throw(JsonType.ARRAY, "List");
+        if (m_document != null) materialize();
         return m_as_list;
     }
 
     public final Map<String, JsonValue> as_map ()
     {
         verify_type_or_throw(JsonType.OBJECT, "Map");
+        if (m_document != null) materialize();
         return m_as_map;
     }
 
     public final String as_string ()
     {
         verify_type_or_throw(JsonType.STRING, "String");
+        if (m_document != null) materialize();
         return (String) m_value;
     }
 
     public final double as_double ()
     {
         verify_type_or_throw(JsonType.NUMBER, "double");
-        return (Double) m_value;
+        if (m_document != null) materialize();
+        return m_double;
+    }
+
+    // Exact for every integer in the range of long, unlike (long) as_double().
+    public final long as_long ()
+    {
+        verify_type_or_throw(JsonType.NUMBER, "long");
+        if (m_document != null) materialize();
+        return m_long;
+    }
+
+    public final NumberKind number_kind ()
+    {
+        verify_type_or_throw(JsonType.NUMBER, "number");
+        if (m_document != null) materialize();
+        return m_number_kind;
+    }
+
+    public final BigDecimal as_big_decimal ()
+    {
+        return switch (number_kind())
+                {
+                    case LONG -> BigDecimal.valueOf(m_long);
+                    case DOUBLE -> BigDecimal.valueOf(m_double);
+                    case BIG -> new BigDecimal((String) m_value);
+                };
+    }
+
+    public final BigInteger as_big_integer ()
+    {
+        return number_kind() == NumberKind.LONG ? BigInteger.valueOf(m_long) : as_big_decimal().toBigInteger();
     }
 
     public final float as_float ()
@@ -122,10 +257,6 @@ public class JsonValue
         return (short) as_int();
     }
 
-    public final long as_long ()
-    {
-        return (long) as_double();
-    }
 
     public final boolean is_number ()
     {
@@ -155,11 +286,23 @@ public class JsonValue
     public final boolean as_bool ()
     {
         verify_type_or_throw(JsonType.BOOL, "boolean");
+        if (m_document != null) materialize();
         return (Boolean) m_value;
     }
 
+    // Numbers come out boxed according to their kind: Long, Double or BigDecimal.
     public final Object as_object ()
     {
+        if (m_document != null) materialize();
+        if (m_type == JsonType.NUMBER)
+        {
+            return switch (m_number_kind)
+                    {
+                        case LONG -> Long.valueOf(m_long);
+                        case DOUBLE -> Double.valueOf(m_double);
+                        case BIG -> as_big_decimal();
+                    };
+        }
         return m_value;
     }
 
@@ -185,6 +328,16 @@ public class JsonValue
         return SweetJson.get_binder(definition).construct(this, definition, Objects.requireNonNull(bag));
     }
 
+    public final <T> T bind_to (final Typedef<T> definition)
+    {
+        return SweetJson.get_binder(definition).construct(this, definition, Bag.empty());
+    }
+
+    public final <T> T bind_to (final Typedef<T> definition, final Bag bag)
+    {
+        return SweetJson.get_binder(definition).construct(this, definition, Objects.requireNonNull(bag));
+    }
+
     public final <T> T bind_to_generic (final Class<T> prototype, Class<?>... type_args)
     {
         var definition = Typedef.<T>builder()
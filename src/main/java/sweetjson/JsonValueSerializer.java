@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+// Writes JsonValue trees back out, e.g. documents assembled by hand. Numbers keep the form
+// they were read in: integers without a fraction, long digit strings digit for digit.
+public class JsonValueSerializer<T> implements JsonSerializer<T>
+{
+    public static final JsonSerializer<?> INSTANCE = new JsonValueSerializer<>();
+
+    @Override
+    public void serialize (final T value, final Typedef<T> definition, final JsonWriter writer, final Bag bag)
+    {
+        write((JsonValue) value, writer);
+    }
+
+    private static void write (final JsonValue value, final JsonWriter writer)
+    {
+        switch (value.get_type())
+        {
+            case OBJECT:
+                writer.begin_object();
+                for (var entry : value.as_map().entrySet())
+                {
+                    writer.key(entry.getKey());
+                    write(entry.getValue(), writer);
+                }
+                writer.end_object();
+                break;
+            case ARRAY:
+                writer.begin_array();
+                for (var element : value.as_list())
+                    write(element, writer);
+                writer.end_array();
+                break;
+            case STRING:
+                writer.value(value.as_string());
+                break;
+            case NUMBER:
+                switch (value.number_kind())
+                {
+                    case LONG -> writer.value(value.as_long());
+                    case DOUBLE -> writer.value(value.as_double());
+                    case BIG -> writer.value(value.as_big_decimal());
+                }
+                break;
+            case BOOL:
+                writer.value(value.as_bool());
+                break;
+            case NULL:
+                writer.null_value();
+                break;
+            default:
+                throw new RuntimeException("Attempted to write a `" + value.get_type() + "` value!");
+        }
+    }
+}
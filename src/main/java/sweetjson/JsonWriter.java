@@ -0,0 +1,500 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static sweetjson.JsonParser.throw_if;
+
+// Writes JSON text as UTF-8 into a byte buffer. With an OutputStream or a channel the buffer is
+// drained whenever it fills up; without one it grows and the document is collected with
+// to_string(). Commas and colons are inserted as values are written, mirroring JsonTokenReader.
+// Strings and numbers are encoded straight into the buffer, so writing allocates nothing once
+// the buffer is large enough.
+public final class JsonWriter
+{
+    private enum Scope
+    {
+        EMPTY_ARRAY,
+        NONEMPTY_ARRAY,
+        EMPTY_OBJECT,
+        DANGLING_KEY,
+        NONEMPTY_OBJECT
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+    // In-memory documents can grow the buffer a lot; past this size it isn't kept for reuse.
+    private static final int MAX_RETAINED_SIZE = 1 << 20;
+    // Enough for any single step of write_string (a unicode escape) or number.
+    private static final int MAX_STEP = 32;
+
+    // For each ASCII character: 0 if it's written as is, otherwise the letter following the
+    // backslash in its escape ('u' for the six-character form).
+    private static final byte[] ESCAPES = new byte[128];
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    // "00".."99", so that numbers are formatted two digits at a time.
+    private static final byte[] DIGIT_PAIRS = new byte[200];
+    private static final double[] POWERS_OF_TEN = new double[23];
+    private static final float[] FLOAT_POWERS_OF_TEN = new float[11];
+
+    static
+    {
+        for (int c = 0; c < 0x20; c++)
+            ESCAPES[c] = 'u';
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['\t'] = 't';
+        for (int i = 0; i < 100; i++)
+        {
+            DIGIT_PAIRS[i * 2] = (byte) ('0' + i / 10);
+            DIGIT_PAIRS[i * 2 + 1] = (byte) ('0' + i % 10);
+        }
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++)
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        FLOAT_POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < FLOAT_POWERS_OF_TEN.length; i++)
+            FLOAT_POWERS_OF_TEN[i] = FLOAT_POWERS_OF_TEN[i - 1] * 10;
+    }
+
+    private OutputStream m_stream;
+    private WritableByteChannel m_channel;
+    private byte[] m_buffer = new byte[BUFFER_SIZE];
+    private ByteBuffer m_wrapper = ByteBuffer.wrap(m_buffer);
+    private int m_position = 0;
+    private Scope[] m_stack = new Scope[32];
+    private int m_depth = 0;
+    private boolean m_started = false;
+
+    public JsonWriter ()
+    {
+    }
+
+    public JsonWriter (final OutputStream stream)
+    {
+        m_stream = stream;
+    }
+
+    public JsonWriter (final WritableByteChannel channel)
+    {
+        m_channel = channel;
+    }
+
+    // Prepares the writer for a new document, keeping the buffer.
+    void reset (final OutputStream stream, final WritableByteChannel channel)
+    {
+        m_stream = stream;
+        m_channel = channel;
+        m_position = 0;
+        m_depth = 0;
+        m_started = false;
+        if (m_buffer.length > MAX_RETAINED_SIZE)
+        {
+            m_buffer = new byte[BUFFER_SIZE];
+            m_wrapper = ByteBuffer.wrap(m_buffer);
+        }
+    }
+
+    public JsonWriter begin_object ()
+    {
+        before_value();
+        write_byte('{');
+        push(Scope.EMPTY_OBJECT);
+        return this;
+    }
+
+    public JsonWriter end_object ()
+    {
+        var scope = m_depth == 0 ? null : m_stack[m_depth - 1];
+        throw_if(scope != Scope.EMPTY_OBJECT && scope != Scope.NONEMPTY_OBJECT, "No object to end!");
+        m_depth--;
+        write_byte('}');
+        return this;
+    }
+
+    public JsonWriter begin_array ()
+    {
+        before_value();
+        write_byte('[');
+        push(Scope.EMPTY_ARRAY);
+        return this;
+    }
+
+    public JsonWriter end_array ()
+    {
+        var scope = m_depth == 0 ? null : m_stack[m_depth - 1];
+        throw_if(scope != Scope.EMPTY_ARRAY && scope != Scope.NONEMPTY_ARRAY, "No array to end!");
+        m_depth--;
+        write_byte(']');
+        return this;
+    }
+
+    public JsonWriter key (final String name)
+    {
+        var scope = m_depth == 0 ? null : m_stack[m_depth - 1];
+        if (scope == Scope.NONEMPTY_OBJECT)
+            write_byte(',');
+        else
+            throw_if(scope != Scope.EMPTY_OBJECT, "Keys can only be written inside objects!");
+        write_string(name);
+        write_byte(':');
+        m_stack[m_depth - 1] = Scope.DANGLING_KEY;
+        return this;
+    }
+
+    public JsonWriter value (final String string)
+    {
+        if (string == null)
+            return null_value();
+        before_value();
+        write_string(string);
+        return this;
+    }
+
+    public JsonWriter value (final long number)
+    {
+        before_value();
+        require(MAX_STEP);
+        write_long(number);
+        return this;
+    }
+
+    public JsonWriter value (final double number)
+    {
+        throw_if(Double.isNaN(number) || Double.isInfinite(number), "JSON can't represent " + number + "!");
+        before_value();
+        require(MAX_STEP);
+        if (!write_short_double(number))
+            write_ascii(Double.toString(number));
+        return this;
+    }
+
+    // Written with float precision, so 0.1f comes out as 0.1 rather than 0.10000000149011612.
+    public JsonWriter value (final float number)
+    {
+        throw_if(Float.isNaN(number) || Float.isInfinite(number), "JSON can't represent " + number + "!");
+        before_value();
+        require(MAX_STEP);
+        if (!write_short_float(number))
+            write_ascii(Float.toString(number));
+        return this;
+    }
+
+    public JsonWriter value (final BigDecimal number)
+    {
+        if (number == null)
+            return null_value();
+        before_value();
+        write_ascii(number.toString());
+        return this;
+    }
+
+    public JsonWriter value (final boolean bool)
+    {
+        before_value();
+        write_ascii(bool ? "true" : "false");
+        return this;
+    }
+
+    public JsonWriter null_value ()
+    {
+        before_value();
+        write_ascii("null");
+        return this;
+    }
+
+    // Writes out everything buffered so far (only meaningful with an OutputStream or a channel).
+    public void flush ()
+    {
+        drain();
+        try
+        {
+            if (m_stream != null)
+                m_stream.flush();
+        } catch (IOException ioe)
+        {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    // The document written so far (only meaningful without an OutputStream or a channel).
+    public String to_string ()
+    {
+        return new String(m_buffer, 0, m_position, StandardCharsets.UTF_8);
+    }
+
+    private void push (final Scope scope)
+    {
+        if (m_depth == m_stack.length)
+            m_stack = Arrays.copyOf(m_stack, m_depth * 2);
+        m_stack[m_depth++] = scope;
+    }
+
+    private void before_value ()
+    {
+        if (m_depth == 0)
+        {
+            throw_if(m_started, "Only one top-level value can be written!");
+            m_started = true;
+            return;
+        }
+        switch (m_stack[m_depth - 1])
+        {
+            case EMPTY_ARRAY -> m_stack[m_depth - 1] = Scope.NONEMPTY_ARRAY;
+            case NONEMPTY_ARRAY -> write_byte(',');
+            case DANGLING_KEY -> m_stack[m_depth - 1] = Scope.NONEMPTY_OBJECT;
+            default -> throw new RuntimeException("Expected a key before the value!");
+        }
+    }
+
+    private void drain ()
+    {
+        if (m_position == 0)
+            return;
+        try
+        {
+            if (m_stream != null)
+                m_stream.write(m_buffer, 0, m_position);
+            else if (m_channel != null)
+            {
+                m_wrapper.clear().limit(m_position);
+                while (m_wrapper.hasRemaining())
+                    m_channel.write(m_wrapper);
+            } else
+                return;
+            m_position = 0;
+        } catch (IOException ioe)
+        {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    // Makes room for `count` more bytes, draining to the sink or growing the buffer.
+    private void require (final int count)
+    {
+        if (m_position + count <= m_buffer.length)
+            return;
+        drain();
+        if (m_position + count > m_buffer.length)
+        {
+            m_buffer = Arrays.copyOf(m_buffer, Math.max(m_buffer.length * 2, m_position + count));
+            m_wrapper = ByteBuffer.wrap(m_buffer);
+        }
+    }
+
+    private void write_byte (final char c)
+    {
+        require(1);
+        m_buffer[m_position++] = (byte) c;
+    }
+
+    private void write_ascii (final String text)
+    {
+        int length = text.length();
+        require(length);
+        for (int i = 0; i < length; i++)
+            m_buffer[m_position++] = (byte) text.charAt(i);
+    }
+
+    private void write_string (final String string)
+    {
+        write_byte('"');
+        for (int i = 0, length = string.length(); i < length; i++)
+        {
+            if (m_position + MAX_STEP > m_buffer.length)
+                require(MAX_STEP);
+            final var buffer = m_buffer;
+            char c = string.charAt(i);
+            if (c < 0x80)
+            {
+                byte escape = ESCAPES[c];
+                if (escape == 0)
+                    buffer[m_position++] = (byte) c;
+                else
+                {
+                    buffer[m_position++] = '\\';
+                    if (escape == 'u')
+                        write_unicode_escape(c);
+                    else
+                        buffer[m_position++] = escape;
+                }
+            } else if (c < 0x800)
+            {
+                buffer[m_position++] = (byte) (0xc0 | (c >> 6));
+                buffer[m_position++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(string.charAt(i + 1)))
+            {
+                int code_point = Character.toCodePoint(c, string.charAt(++i));
+                buffer[m_position++] = (byte) (0xf0 | (code_point >> 18));
+                buffer[m_position++] = (byte) (0x80 | ((code_point >> 12) & 0x3f));
+                buffer[m_position++] = (byte) (0x80 | ((code_point >> 6) & 0x3f));
+                buffer[m_position++] = (byte) (0x80 | (code_point & 0x3f));
+            } else if (Character.isSurrogate(c))
+            {
+                // A lone surrogate can't be encoded as UTF-8, but JSON can still carry it escaped.
+                buffer[m_position++] = '\\';
+                write_unicode_escape(c);
+            } else
+            {
+                buffer[m_position++] = (byte) (0xe0 | (c >> 12));
+                buffer[m_position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buffer[m_position++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        write_byte('"');
+    }
+
+    // Writes the `uXXXX` part of an escape; room must have been made already.
+    private void write_unicode_escape (final char c)
+    {
+        m_buffer[m_position++] = 'u';
+        m_buffer[m_position++] = HEX_DIGITS[c >> 12];
+        m_buffer[m_position++] = HEX_DIGITS[(c >> 8) & 0xf];
+        m_buffer[m_position++] = HEX_DIGITS[(c >> 4) & 0xf];
+        m_buffer[m_position++] = HEX_DIGITS[c & 0xf];
+    }
+
+    // Room must have been made already (at most 20 bytes).
+    private void write_long (final long number)
+    {
+        if (number == Long.MIN_VALUE)
+        {
+            write_ascii("-9223372036854775808");
+            return;
+        }
+        long value = number;
+        if (value < 0)
+        {
+            m_buffer[m_position++] = '-';
+            value = -value;
+        }
+        int end = m_position + digit_count(value);
+        int position = end;
+        while (value >= 100)
+        {
+            int pair = (int) (value % 100) * 2;
+            value /= 100;
+            m_buffer[--position] = DIGIT_PAIRS[pair + 1];
+            m_buffer[--position] = DIGIT_PAIRS[pair];
+        }
+        if (value >= 10)
+        {
+            m_buffer[--position] = DIGIT_PAIRS[(int) value * 2 + 1];
+            m_buffer[--position] = DIGIT_PAIRS[(int) value * 2];
+        } else
+            m_buffer[--position] = (byte) ('0' + value);
+        m_position = end;
+    }
+
+    private static int digit_count (final long value)
+    {
+        int count = 1;
+        for (long bound = 10; count < 19 && value >= bound; bound *= 10)
+            count++;
+        return count;
+    }
+
+    // Writes `digits` with a decimal point `scale` digits from the right (always at least one
+    // digit on each side). Room must have been made already.
+    private void write_decimal (final boolean negative, final long digits, final int scale)
+    {
+        if (negative)
+            m_buffer[m_position++] = '-';
+        int start = m_position;
+        write_long(digits);
+        int length = m_position - start;
+        if (scale == 0)
+        {
+            m_buffer[m_position++] = '.';
+            m_buffer[m_position++] = '0';
+            return;
+        }
+        if (length <= scale)
+        {
+            // 0.00ddd: shift the digits right to make room for the leading zeros.
+            int shift = scale - length + 2;
+            System.arraycopy(m_buffer, start, m_buffer, start + shift, length);
+            m_buffer[start] = '0';
+            m_buffer[start + 1] = '.';
+            for (int i = start + 2; i < start + shift; i++)
+                m_buffer[i] = '0';
+            m_position = start + shift + length;
+            return;
+        }
+        int point = start + length - scale;
+        System.arraycopy(m_buffer, point, m_buffer, point + 1, scale);
+        m_buffer[point] = '.';
+        m_position++;
+    }
+
+    // Looks for the smallest power of ten that turns `number` into an integer below 2^53. Dividing
+    // that integer by the power is then correctly rounded (both are exact doubles), so the decimal
+    // written is the shortest at that scale that parses back to `number`. Returns false when there
+    // is no such scale (very large or very small magnitudes), leaving it to Double.toString.
+    private boolean write_short_double (final double number)
+    {
+        boolean negative = number < 0 || (number == 0 && 1 / number < 0);
+        double magnitude = Math.abs(number);
+        if (magnitude >= 0x1p53)
+            return false;
+        for (int scale = 0; scale < POWERS_OF_TEN.length; scale++)
+        {
+            double scaled = magnitude * POWERS_OF_TEN[scale];
+            if (scaled >= 0x1p53)
+                return false;
+            long digits = Math.round(scaled);
+            if (digits / POWERS_OF_TEN[scale] == magnitude)
+            {
+                write_decimal(negative, digits, scale);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Same as write_short_double, with float arithmetic (integers below 2^24, powers up to 10^10).
+    private boolean write_short_float (final float number)
+    {
+        boolean negative = number < 0 || (number == 0 && 1 / number < 0);
+        float magnitude = Math.abs(number);
+        if (magnitude >= 0x1p24f)
+            return false;
+        for (int scale = 0; scale < FLOAT_POWERS_OF_TEN.length; scale++)
+        {
+            float scaled = magnitude * FLOAT_POWERS_OF_TEN[scale];
+            if (scaled >= 0x1p24f)
+                return false;
+            int digits = Math.round(scaled);
+            if (digits / FLOAT_POWERS_OF_TEN[scale] == magnitude)
+            {
+                write_decimal(negative, digits, scale);
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import static sweetjson.JsonParser.throw_if;
+
+// Structural index over an in-memory document. A single validating pass records where every
+// key and value starts; JsonValues created on top of it only decode the parts that get accessed.
+//
+// Entries are stored in document order. For each entry, m_next holds the index of the entry
+// that follows it at the same level, so the children of an object or array can be walked
+// without looking inside nested values.
+final class LazyDocument
+{
+    private final JsonParser m_parser;
+    private int[] m_offsets = new int[64];
+    private int[] m_next = new int[64];
+    private int m_count = 0;
+
+    private LazyDocument (final byte[] json)
+    {
+        m_parser = new JsonParser(json);
+    }
+
+    static JsonValue parse (final byte[] json)
+    {
+        var document = new LazyDocument(json);
+        var parser = document.m_parser;
+        parser.consume_whitespaces();
+        var type = parser.get_next_value_type();
+        throw_if(type != JsonValue.JsonType.OBJECT && type != JsonValue.JsonType.ARRAY, "Invalid JSON input!");
+        document.index_value();
+        parser.consume_whitespaces();
+        throw_if(!parser.eof_reached(), "Invalid JSON input!");
+        return new JsonValue(document, 0);
+    }
+
+    private int add_entry (final int offset)
+    {
+        if (m_count == m_offsets.length)
+        {
+            m_offsets = Arrays.copyOf(m_offsets, m_count * 2);
+            m_next = Arrays.copyOf(m_next, m_count * 2);
+        }
+        m_offsets[m_count] = offset;
+        m_next[m_count] = m_count + 1;
+        return m_count++;
+    }
+
+    private void index_value ()
+    {
+        var parser = m_parser;
+        parser.consume_whitespaces();
+        int entry = add_entry(parser.position());
+        switch (parser.get_next_value_type())
+        {
+            case OBJECT:
+                parser.read();
+                parser.consume_whitespaces();
+                if (parser.read_on_match('}'))
+                    break;
+                do
+                {
+                    parser.consume_whitespaces();
+                    int key_offset = parser.position();
+                    add_entry(key_offset);
+                    parser.skip_string();
+                    throw_if(parser.position() - key_offset == 2, "Empty key not allowed!");
+                    parser.consume_whitespaces();
+                    parser.read_or_throw(':');
+                    index_value();
+                    parser.consume_whitespaces();
+                } while (parser.read_or_throw(',', '}') == ',');
+                break;
+            case ARRAY:
+                parser.read();
+                parser.consume_whitespaces();
+                if (parser.read_on_match(']'))
+                    break;
+                do
+                {
+                    index_value();
+                    parser.consume_whitespaces();
+                } while (parser.read_or_throw(',', ']') == ',');
+                break;
+            case STRING:
+                parser.skip_string();
+                break;
+            case NUMBER:
+                parser.skip_number();
+                break;
+            case BOOL:
+                parser.scan_boolean();
+                break;
+            case NULL:
+                parser.scan_null();
+                break;
+            default:
+                throw new RuntimeException("UNKNOWN value type!");
+        }
+        m_next[entry] = m_count;
+    }
+
+    // Values are decoded through the document's one parser, so it's locked while in use: values of
+    // the same lazy tree may be bound from several threads at once.
+    synchronized JsonValue.JsonType type_of (final int entry)
+    {
+        m_parser.seek(m_offsets[entry]);
+        return m_parser.get_next_value_type();
+    }
+
+    synchronized Object materialize (final int entry)
+    {
+        m_parser.seek(m_offsets[entry]);
+        switch (m_parser.get_next_value_type())
+        {
+            case OBJECT:
+            {
+                var map = new HashMap<String, JsonValue>();
+                for (int child = entry + 1; child < m_next[entry]; child = m_next[child + 1])
+                {
+                    m_parser.seek(m_offsets[child]);
+                    map.put(m_parser.scan_string(), new JsonValue(this, child + 1));
+                }
+                return map;
+            }
+            case ARRAY:
+            {
+                var list = new ArrayList<JsonValue>();
+                for (int child = entry + 1; child < m_next[entry]; child = m_next[child])
+                    list.add(new JsonValue(this, child));
+                return list;
+            }
+            case STRING:
+                return m_parser.scan_string();
+            case NUMBER:
+                return m_parser.scan_number_value();
+            case BOOL:
+                return m_parser.scan_boolean();
+            default:
+                return null;
+        }
+    }
+}
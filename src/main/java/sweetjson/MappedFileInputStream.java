@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Serves bytes out of a memory-mapped file, copied into the caller's array on every read (for
+// JsonParser, its fixed-size buffer). Files larger than a single mapping (MappedByteBuffer is
+// int-indexed) are mapped one segment at a time.
+class MappedFileInputStream extends InputStream
+{
+    static final long SEGMENT_SIZE = 1L << 30;
+
+    private final FileChannel m_channel;
+    private final long m_size;
+    private final long m_segment_size;
+    private MappedByteBuffer m_segment;
+    private long m_segment_offset;
+
+    MappedFileInputStream (final Path file_path) throws IOException
+    {
+        this(file_path, SEGMENT_SIZE);
+    }
+
+    MappedFileInputStream (final Path file_path, final long segment_size) throws IOException
+    {
+        m_channel = FileChannel.open(file_path, StandardOpenOption.READ);
+        m_segment_size = segment_size;
+        try
+        {
+            m_size = m_channel.size();
+            map(0);
+        } catch (IOException | RuntimeException exc)
+        {
+            // Nothing owns the channel until the constructor returns.
+            m_channel.close();
+            throw exc;
+        }
+    }
+
+    private void map (final long offset) throws IOException
+    {
+        m_segment_offset = offset;
+        m_segment = m_channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(m_segment_size, m_size - offset));
+    }
+
+    private boolean ensure_remaining () throws IOException
+    {
+        if (m_segment.hasRemaining())
+            return true;
+        long next_offset = m_segment_offset + m_segment.limit();
+        if (next_offset == m_size)
+            return false;
+        map(next_offset);
+        return true;
+    }
+
+    @Override
+    public int read () throws IOException
+    {
+        return ensure_remaining() ? m_segment.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read (final byte[] buffer, final int offset, final int length) throws IOException
+    {
+        if (length == 0)
+            return 0;
+        if (!ensure_remaining())
+            return -1;
+        int count = Math.min(length, m_segment.remaining());
+        m_segment.get(buffer, offset, count);
+        return count;
+    }
+
+    @Override
+    public void close () throws IOException
+    {
+        // The mapping itself is released once the buffer is garbage collected.
+        m_segment = null;
+        m_channel.close();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static sweetjson.JsonParser.throw_if;
+
+// Parses a top-level array with its elements spread across a ForkJoinPool.
+//
+// A structural pre-scan walks the document once, skipping over strings (and the escapes in
+// them), and records where each element at depth 1 ends. The elements are then split into
+// chunks of roughly CHUNK_SIZE bytes; every chunk is parsed by its own JsonParser over the same
+// byte array and the results are stored by index, so the order of the array is kept. Each
+// element is fully validated by the parser; the pre-scan only has to get the boundaries right.
+final class ParallelArrayParser
+{
+    // Below this, splitting further costs more than the task saves.
+    private static final int CHUNK_SIZE = 256 * 1024;
+
+    private final byte[] m_json;
+    // Element i spans (m_bounds[i], m_bounds[i + 1]): the first entry is the opening bracket,
+    // the last one the closing bracket and the ones in between the commas at depth 1.
+    private final int[] m_bounds;
+    private final JsonValue[] m_elements;
+
+    private ParallelArrayParser (final byte[] json, final int[] bounds)
+    {
+        m_json = json;
+        m_bounds = bounds;
+        m_elements = new JsonValue[bounds.length - 1];
+    }
+
+    private static boolean is_whitespace (final byte ch)
+    {
+        return ch == ' ' || ch == '\n' || ch == '\r' || ch == '\t' || ch == '\b' || ch == '\f';
+    }
+
+    static JsonValue parse (final byte[] json, final ForkJoinPool pool)
+    {
+        int start = 0;
+        while (start < json.length && is_whitespace(json[start]))
+            start++;
+        // Objects (and anything invalid) are left to the sequential parser.
+        if (start == json.length || json[start] != '[')
+            return new JsonParser(json).parse();
+
+        var bounds = scan(json, start);
+        int end = bounds[bounds.length - 1] + 1;
+        while (end < json.length && is_whitespace(json[end]))
+            end++;
+        throw_if(end != json.length, "Invalid JSON input!");
+
+        if (bounds.length == 2 && is_blank(json, bounds[0] + 1, bounds[1]))
+            return new JsonValue(new ArrayList<>());
+        var parser = new ParallelArrayParser(json, bounds);
+        pool.invoke(parser.new Chunk(0, bounds.length - 1));
+        return new JsonValue(new ArrayList<>(Arrays.asList(parser.m_elements)));
+    }
+
+    private static boolean is_blank (final byte[] json, final int from, final int to)
+    {
+        for (int i = from; i < to; i++)
+        {
+            if (!is_whitespace(json[i]))
+                return false;
+        }
+        return true;
+    }
+
+    // Offsets of the opening bracket, every comma at depth 1 and the closing bracket.
+    private static int[] scan (final byte[] json, final int open)
+    {
+        var bounds = new int[64];
+        int count = 0;
+        bounds[count++] = open;
+        int depth = 1;
+        for (int i = open + 1; i < json.length; i++)
+        {
+            switch (json[i])
+            {
+                case '"':
+                    // Skip to the closing quote, stepping over escaped characters.
+                    for (i++; i < json.length && json[i] != '"'; i++)
+                    {
+                        if (json[i] == '\\')
+                            i++;
+                    }
+                    break;
+                case '[':
+                case '{':
+                    depth++;
+                    break;
+                case ']':
+                case '}':
+                    if (--depth > 0)
+                        break;
+                    // Mismatched brackets inside an element fail when it's parsed, but the outer
+                    // closer is never seen by the parsers.
+                    throw_if(json[i] != ']', "Invalid JSON input!");
+                    if (count == bounds.length)
+                        bounds = Arrays.copyOf(bounds, count * 2);
+                    bounds[count++] = i;
+                    return Arrays.copyOf(bounds, count);
+                case ',':
+                    if (depth > 1)
+                        break;
+                    if (count == bounds.length)
+                        bounds = Arrays.copyOf(bounds, count * 2);
+                    bounds[count++] = i;
+                    break;
+                default:
+                    break;
+            }
+        }
+        throw new RuntimeException("Invalid JSON input!");
+    }
+
+    @SuppressWarnings("serial")
+    private final class Chunk extends RecursiveAction
+    {
+        // Elements [m_from, m_to).
+        private final int m_from;
+        private final int m_to;
+
+        private Chunk (final int from, final int to)
+        {
+            m_from = from;
+            m_to = to;
+        }
+
+        @Override
+        protected void compute ()
+        {
+            if (m_to - m_from > 1 && m_bounds[m_to] - m_bounds[m_from] > CHUNK_SIZE)
+            {
+                int middle = (m_from + m_to) >>> 1;
+                invokeAll(new Chunk(m_from, middle), new Chunk(middle, m_to));
+                return;
+            }
+            var parser = new JsonParser(m_json);
+            for (int i = m_from; i < m_to; i++)
+                m_elements[i] = parser.parse_element(m_bounds[i] + 1, m_bounds[i + 1]);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.RecursiveAction;
+
+// Binds the elements of large arrays and collections on a ForkJoinPool, for bags that ask for it
+// through Bag.put_parallel_binding. The list is split into ranges, each bound by one task into
+// its slots of the output, so the order is kept without any merging. Elements are independent,
+// but they share the bag and the Typedef/binder caches, which are safe to read concurrently.
+final class ParallelBinder
+{
+    // Tasks get at least this many elements, so small ones don't drown in scheduling overhead.
+    private static final int MIN_CHUNK = 256;
+
+    private ParallelBinder ()
+    {
+    }
+
+    static boolean is_enabled (final Bag bag, final int size)
+    {
+        return bag.parallel_pool() != null && size >= bag.parallel_threshold();
+    }
+
+    // Binds list[i] into out[i]; slots of null elements are left alone.
+    static void bind (final List<JsonValue> list, final Typedef<Object> element, final JsonBinder<Object> binder,
+                      final Bag bag, final Object[] out)
+    {
+        var pool = bag.parallel_pool();
+        var elements = list instanceof RandomAccess ? list : new ArrayList<>(list);
+        int chunk = Math.max(MIN_CHUNK, elements.size() / (pool.getParallelism() * 4) + 1);
+        pool.invoke(new Chunk(elements, element, binder, bag, out, 0, elements.size(), chunk));
+    }
+
+    @SuppressWarnings("serial")
+    private static final class Chunk extends RecursiveAction
+    {
+        private final List<JsonValue> m_list;
+        private final Typedef<Object> m_element;
+        private final JsonBinder<Object> m_binder;
+        private final Bag m_bag;
+        private final Object[] m_out;
+        private final int m_from;
+        private final int m_to;
+        private final int m_chunk;
+
+        private Chunk (final List<JsonValue> list, final Typedef<Object> element, final JsonBinder<Object> binder,
+                       final Bag bag, final Object[] out, final int from, final int to, final int chunk)
+        {
+            m_list = list;
+            m_element = element;
+            m_binder = binder;
+            m_bag = bag;
+            m_out = out;
+            m_from = from;
+            m_to = to;
+            m_chunk = chunk;
+        }
+
+        @Override
+        protected void compute ()
+        {
+            if (m_to - m_from > m_chunk)
+            {
+                int middle = (m_from + m_to) >>> 1;
+                invokeAll(new Chunk(m_list, m_element, m_binder, m_bag, m_out, m_from, middle, m_chunk),
+                        new Chunk(m_list, m_element, m_binder, m_bag, m_out, middle, m_to, m_chunk));
+                return;
+            }
+            for (int i = m_from; i < m_to; i++)
+            {
+                var entry = m_list.get(i);
+                if (!entry.is_null())
+                    m_out[i] = m_binder.construct(entry, m_element, m_bag);
+            }
+        }
+    }
+}
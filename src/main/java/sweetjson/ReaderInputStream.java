@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+// Encodes the characters of a Reader as UTF-8 so that it can be fed to the byte-oriented parser.
+class ReaderInputStream extends InputStream
+{
+    private final Reader m_reader;
+    private final CharsetEncoder m_encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final CharBuffer m_chars = CharBuffer.allocate(4096).flip();
+    private final ByteBuffer m_bytes = ByteBuffer.allocate(8192).flip();
+    private boolean m_eof = false;
+    private boolean m_flushed = false;
+
+    ReaderInputStream (final Reader reader)
+    {
+        m_reader = reader;
+    }
+
+    private boolean fill () throws IOException
+    {
+        m_bytes.clear();
+        while (m_bytes.position() == 0 && !m_flushed)
+        {
+            if (!m_eof)
+            {
+                m_chars.compact();
+                m_eof = m_reader.read(m_chars) == -1;
+                m_chars.flip();
+            }
+            var result = m_encoder.encode(m_chars, m_bytes, m_eof);
+            if (result.isError())
+                result.throwException();
+            if (m_eof && result.isUnderflow())
+            {
+                m_encoder.flush(m_bytes);
+                m_flushed = true;
+            }
+        }
+        m_bytes.flip();
+        return m_bytes.hasRemaining();
+    }
+
+    @Override
+    public int read () throws IOException
+    {
+        if (!m_bytes.hasRemaining() && !fill())
+            return -1;
+        return m_bytes.get() & 0xFF;
+    }
+
+    @Override
+    public int read (final byte[] buffer, final int offset, final int length) throws IOException
+    {
+        if (length == 0)
+            return 0;
+        if (!m_bytes.hasRemaining() && !fill())
+            return -1;
+        int count = Math.min(length, m_bytes.remaining());
+        m_bytes.get(buffer, offset, count);
+        return count;
+    }
+
+    @Override
+    public void close () throws IOException
+    {
+        m_reader.close();
+    }
+}
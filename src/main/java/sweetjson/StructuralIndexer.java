@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package sweetjson;
+
+import java.util.Arrays;
+
+import static sweetjson.JsonParser.throw_if;
+
+// Stage 1 of IndexedParser: finds the offset of every structural character and of the first
+// byte of every scalar in a document, in the manner of simdjson.
+//
+// The document is processed in blocks of 64 bytes. classify() turns a block into four bitmasks
+// with one bit per byte (backslashes, quotes, structural characters and whitespace), and the rest
+// is arithmetic on longs: escaped quotes are dropped, a prefix XOR of the quotes marks the bytes
+// inside strings, and a byte starts a scalar unless it follows another byte of a number or
+// literal. Escapes, strings and scalars that cross a block boundary are carried into the next
+// block. Only classify() looks at the bytes themselves. VectorStructuralIndexer overrides it with
+// the Vector API, and this class does it one byte at a time wherever that API isn't available.
+class StructuralIndexer
+{
+    static final int BLOCK = 64;
+
+    // The class bits of every byte value: 1 for a backslash, 2 for a quote, 4 for a structural
+    // character and 8 for whitespace.
+    private static final byte[] CLASSES = new byte[256];
+
+    static
+    {
+        CLASSES['\\'] = 1;
+        CLASSES['"'] = 2;
+        for (var ch : "{}[]:,".toCharArray())
+            CLASSES[ch] = 4;
+        for (var ch : " \n\r\t\b\f".toCharArray())
+            CLASSES[ch] = 8;
+    }
+
+    static final StructuralIndexer INSTANCE = load();
+
+    // The Vector API is an incubator module, resolved only with `--add-modules jdk.incubator.vector`;
+    // without it the vectorized subclass can't even be loaded.
+    private static StructuralIndexer load ()
+    {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent())
+        {
+            try
+            {
+                return (StructuralIndexer) Class.forName("sweetjson.VectorStructuralIndexer")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError ignored)
+            {
+            }
+        }
+        return new StructuralIndexer();
+    }
+
+    StructuralIndexer ()
+    {
+    }
+
+    // Sets masks[0..3] to the backslashes, quotes, structural characters and whitespace among
+    // json[offset, offset + BLOCK).
+    void classify (final byte[] json, final int offset, final long[] masks)
+    {
+        long backslash = 0, quote = 0, op = 0, whitespace = 0;
+        for (int i = 0; i < BLOCK; i++)
+        {
+            long bits = CLASSES[json[offset + i] & 0xFF];
+            backslash |= (bits & 1) << i;
+            quote |= (bits >> 1 & 1) << i;
+            op |= (bits >> 2 & 1) << i;
+            whitespace |= (bits >> 3) << i;
+        }
+        masks[0] = backslash;
+        masks[1] = quote;
+        masks[2] = op;
+        masks[3] = whitespace;
+    }
+
+    // Bit i of the result is the XOR of bits 0 to i: set from an opening quote up to, but not
+    // including, the closing one.
+    private static long prefix_xor (long bits)
+    {
+        bits ^= bits << 1;
+        bits ^= bits << 2;
+        bits ^= bits << 4;
+        bits ^= bits << 8;
+        bits ^= bits << 16;
+        bits ^= bits << 32;
+        return bits;
+    }
+
+    // The offsets of the structural characters and scalar starts of json, in order and followed
+    // by json.length. Whether they form valid JSON is up to stage 2; this only rejects strings that
+    // never end.
+    final int[] index (final byte[] json)
+    {
+        var cursor = cursor(json, WINDOW);
+        var offsets = new int[WINDOW];
+        int count = 0;
+        do
+        {
+            int filled = cursor.fill();
+            if (count + filled > offsets.length)
+                offsets = Arrays.copyOf(offsets, Math.max(offsets.length * 2, count + filled));
+            System.arraycopy(cursor.offsets(), 0, offsets, count, filled);
+            count += filled;
+        } while (!cursor.done());
+        return Arrays.copyOf(offsets, count);
+    }
+
+    // The offsets a cursor holds at once. Indexing a whole document up front takes about as much
+    // memory again as the document itself, so IndexedParser consumes it a window at a time.
+    static final int WINDOW = 16 * 1024;
+
+    // `window` has to leave room for the offsets of a full block and the final json.length.
+    final Cursor cursor (final byte[] json, final int window)
+    {
+        throw_if(window <= BLOCK + 1, "Window too small!");
+        return new Cursor(json, window);
+    }
+
+    // Indexes a document block by block, carrying escapes, strings and scalars from one window to
+    // the next.
+    final class Cursor
+    {
+        private final byte[] m_json;
+        private final long[] m_masks = new long[4];
+        private final int[] m_offsets;
+        private byte[] m_tail = null;
+        private int m_base = 0;
+        private boolean m_done = false;
+        private long m_escape_carry = 0;
+        private long m_string_carry = 0;
+        private long m_scalar_carry = 0;
+
+        private Cursor (final byte[] json, final int window)
+        {
+            m_json = json;
+            m_offsets = new int[window];
+        }
+
+        int[] offsets ()
+        {
+            return m_offsets;
+        }
+
+        // Whether the last fill() reached the end of the document, its last offset being json.length.
+        boolean done ()
+        {
+            return m_done;
+        }
+
+        // Replaces the window with the offsets of as many of the following blocks as it can hold and
+        // returns how many there are; never zero.
+        int fill ()
+        {
+            int count = 0;
+            while (m_base < m_json.length && count + BLOCK < m_offsets.length)
+            {
+                if (m_base + BLOCK <= m_json.length)
+                    classify(m_json, m_base, m_masks);
+                else
+                {
+                    // The last partial block is padded with whitespace, which never adds an offset.
+                    m_tail = new byte[BLOCK];
+                    Arrays.fill(m_tail, (byte) ' ');
+                    System.arraycopy(m_json, m_base, m_tail, 0, m_json.length - m_base);
+                    classify(m_tail, 0, m_masks);
+                }
+                count = block(count);
+                m_base += BLOCK;
+            }
+            if (m_base >= m_json.length)
+            {
+                throw_if(m_string_carry != 0, "Unterminated string!");
+                m_offsets[count++] = m_json.length;
+                m_done = true;
+            }
+            return count;
+        }
+
+        // Appends the offsets of the block at m_base, whose masks were just classified.
+        private int block (int count)
+        {
+            long backslash = m_masks[0], quote = m_masks[1], op = m_masks[2], whitespace = m_masks[3];
+
+            // Backslashes are rare enough to be walked one by one: each one that isn't escaped
+            // itself escapes the byte after it.
+            long escaped = m_escape_carry;
+            m_escape_carry = 0;
+            while (backslash != 0)
+            {
+                long bit = backslash & -backslash;
+                backslash ^= bit;
+                if ((escaped & bit) == 0)
+                {
+                    if (bit < 0)
+                        m_escape_carry = 1;
+                    else
+                        escaped |= bit << 1;
+                }
+            }
+            quote &= ~escaped;
+
+            long in_string = prefix_xor(quote) ^ m_string_carry;
+            m_string_carry = in_string >> 63;
+            // Everything in a string after its opening quote, the closing quote included.
+            long string_tail = in_string ^ quote;
+
+            long scalar = ~(op | whitespace);
+            long unquoted = scalar & ~quote;
+            long follows_unquoted = unquoted << 1 | m_scalar_carry;
+            m_scalar_carry = unquoted >>> 63;
+            long starts = (op | scalar & ~follows_unquoted) & ~string_tail;
+
+            while (starts != 0)
+            {
+                m_offsets[count++] = m_base + Long.numberOfTrailingZeros(starts);
+                starts &= starts - 1;
+            }
+            return count;
+        }
+    }
+}
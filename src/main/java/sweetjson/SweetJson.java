@@ -16,25 +16,236 @@
 
 package sweetjson;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
 import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SweetJson
 {
-    private static final Map<Typedef<?>, JsonBinder<?>> CUSTOM_BINDERS = new HashMap<>();
+    // Registries are read for every value bound or written and written a handful of times, so
+    // lookups go through lock-free ConcurrentHashMap reads and, after the first one, through the
+    // resolution cached on each Typedef. A registration is published before the version bump that
+    // invalidates those caches, so no thread keeps using a stale choice once it sees the new version.
+    private static final Map<Typedef<?>, JsonBinder<?>> CUSTOM_BINDERS = new ConcurrentHashMap<>();
+    private static final Map<Typedef<?>, JsonSerializer<?>> CUSTOM_SERIALIZERS = new ConcurrentHashMap<>();
+    private static final AtomicInteger REGISTRY_VERSION = new AtomicInteger();
+
+    // Each thread writes through its own writer so the buffer is reused from one document to the next.
+    private static final ThreadLocal<JsonWriter> WRITERS = ThreadLocal.withInitial(JsonWriter::new);
+
+    static
+    {
+        // Binders generated at compile time for @JsonModel classes. The loader only takes the raw
+        // class; each provider is captured with its own model type when it's registered.
+        for (JsonModelBinder<?> binder : ServiceLoader.load(JsonModelBinder.class))
+            register_model_binder(binder);
+    }
+
+    private static <T> void register_model_binder (final JsonModelBinder<T> binder)
+    {
+        register_binder(Typedef.wrap(binder.model_class()), binder);
+    }
 
     public static <T> void register_binder (final Typedef<T> definition, final JsonBinder<T> binder)
     {
-        CUSTOM_BINDERS.put(definition, binder);
+        CUSTOM_BINDERS.put(Objects.requireNonNull(definition), Objects.requireNonNull(binder));
+        REGISTRY_VERSION.incrementAndGet();
+    }
+
+    public static <T> void register_serializer (final Typedef<T> definition, final JsonSerializer<T> serializer)
+    {
+        CUSTOM_SERIALIZERS.put(Objects.requireNonNull(definition), Objects.requireNonNull(serializer));
+        REGISTRY_VERSION.incrementAndGet();
+    }
+
+    // Generates a dedicated binder for `klass` at runtime and registers it like any custom binder.
+    // Fields are written directly by the generated code instead of through reflection.
+    public static <T> void register_generated_binder (final Class<T> klass)
+    {
+        register_binder(Typedef.wrap(klass), BinderGenerator.generate(klass));
+    }
+
+    // Binds the document straight from the parser's tokens, without building a JsonValue tree first.
+    public static <T> T read (final InputStream stream, final Typedef<T> definition)
+    {
+        return read(JsonParser.tokens(stream), definition);
+    }
+
+    public static <T> T read (final String json, final Typedef<T> definition)
+    {
+        return read(JsonParser.tokens(json), definition);
+    }
+
+    private static <T> T read (final JsonTokenReader reader, final Typedef<T> definition)
+    {
+        // The stream belongs to the caller, so the reader is deliberately not closed here.
+        var model = get_binder(definition).read(reader, definition, Bag.empty());
+        reader.expect(JsonTokenReader.Token.END_DOCUMENT);
+        return model;
     }
 
     @SuppressWarnings("unchecked")
+    public static void write (final Object object, final OutputStream stream)
+    {
+        write(object, object == null ? null : (Typedef<Object>) typedef_of(object.getClass()), stream);
+    }
+
+    // For generic models, whose type arguments can't be recovered from the object itself.
+    public static <T> void write (final T object, final Typedef<T> definition, final OutputStream stream)
+    {
+        write_to(object, definition, stream, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void write (final Object object, final WritableByteChannel channel)
+    {
+        write(object, object == null ? null : (Typedef<Object>) typedef_of(object.getClass()), channel);
+    }
+
+    public static <T> void write (final T object, final Typedef<T> definition, final WritableByteChannel channel)
+    {
+        write_to(object, definition, null, channel);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void write (final Object object, final Appendable appendable)
+    {
+        write(object, object == null ? null : (Typedef<Object>) typedef_of(object.getClass()), appendable);
+    }
+
+    public static <T> void write (final T object, final Typedef<T> definition, final Appendable appendable)
+    {
+        var writer = WRITERS.get();
+        WRITERS.remove();
+        try
+        {
+            writer.reset(null, null);
+            write_value(object, definition, writer, Bag.empty());
+            appendable.append(writer.to_string());
+        } catch (IOException ioe)
+        {
+            throw new RuntimeException(ioe);
+        } finally
+        {
+            writer.reset(null, null);
+            WRITERS.set(writer);
+        }
+    }
+
+    private static <T> void write_to (final T object, final Typedef<T> definition,
+                                      final OutputStream stream, final WritableByteChannel channel)
+    {
+        var writer = WRITERS.get();
+        // Removed while in use, so a serializer that calls back into write() gets a writer of its own.
+        WRITERS.remove();
+        try
+        {
+            writer.reset(stream, channel);
+            write_value(object, definition, writer, Bag.empty());
+            writer.flush();
+        } finally
+        {
+            writer.reset(null, null);
+            WRITERS.set(writer);
+        }
+    }
+
+    // Writes `value` with the serializer for `definition`, or with the one for its runtime class when
+    // that's more specific (a subclass, or an ArrayList in a List field) and nothing was registered
+    // for the declared type.
+    @SuppressWarnings("unchecked")
+    static <T> void write_value (final Object value, final Typedef<T> definition, final JsonWriter writer, final Bag bag)
+    {
+        if (value == null)
+            writer.null_value();
+        else if (value.getClass() == definition.klass() || find_custom(CUSTOM_SERIALIZERS, definition) != null)
+            get_serializer(definition).serialize((T) value, definition, writer, bag);
+        else
+        {
+            var runtime = (Typedef<Object>) typedef_of(value.getClass());
+            get_serializer(runtime).serialize(value, runtime, writer, bag);
+        }
+    }
+
+    static Typedef<?> typedef_of (final Class<?> klass)
+    {
+        return Typedef.wrap(klass);
+    }
+
+    // Registered for the exact type, or else for its raw class: a binder registered for `List`
+    // handles every `List<X>` that has none of its own.
+    private static <V> V find_custom (final Map<Typedef<?>, V> registry, final Typedef<?> type)
+    {
+        var custom = registry.get(type);
+        if (custom == null && type.has_type_args())
+            custom = registry.get(Typedef.wrap(type.klass()));
+        return custom;
+    }
+
+    // Changes whenever a binder or serializer is registered, so that cached choices can be revalidated.
+    static int registry_version ()
+    {
+        return REGISTRY_VERSION.get();
+    }
+
+    // Resolved once per type and cached on its Typedef until the registry changes.
     public static <T> JsonBinder<T> get_binder (final Typedef<T> type)
     {
-        var binder = (JsonBinder<T>) CUSTOM_BINDERS.get(type);
+        int version = REGISTRY_VERSION.get();
+        var binder = type.cached_binder(version);
+        if (binder == null)
+        {
+            binder = resolve_binder(type);
+            type.cache_binder(binder, version);
+        }
+        return binder;
+    }
+
+    public static <T> JsonSerializer<T> get_serializer (final Typedef<T> type)
+    {
+        int version = REGISTRY_VERSION.get();
+        var serializer = type.cached_serializer(version);
+        if (serializer == null)
+        {
+            serializer = resolve_serializer(type);
+            type.cache_serializer(serializer, version);
+        }
+        return serializer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> JsonBinder<T> resolve_binder (final Typedef<T> type)
+    {
+        var binder = (JsonBinder<T>) find_custom(CUSTOM_BINDERS, type);
         if (binder != null) return binder;
-        return type.is_json_primitive() ? (JsonBinder<T>) JsonPrimitiveBinder.INSTANCE
-                : (type.is_array() ? (JsonBinder<T>) JsonArrayBinder.INSTANCE
-                : (JsonBinder<T>) JsonObjectBinder.INSTANCE);
+        var klass = type.klass();
+        if (type.is_json_primitive()) return (JsonBinder<T>) JsonPrimitiveBinder.INSTANCE;
+        if (klass == Object.class) return (JsonBinder<T>) JsonUntypedBinder.INSTANCE;
+        if (type.is_array()) return (JsonBinder<T>) JsonArrayBinder.INSTANCE;
+        if (Map.class.isAssignableFrom(klass)) return (JsonBinder<T>) JsonMapBinder.INSTANCE;
+        if (Collection.class.isAssignableFrom(klass) || klass == Iterable.class)
+            return (JsonBinder<T>) JsonCollectionBinder.INSTANCE;
+        return (JsonBinder<T>) JsonObjectBinder.INSTANCE;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> JsonSerializer<T> resolve_serializer (final Typedef<T> type)
+    {
+        var serializer = (JsonSerializer<T>) find_custom(CUSTOM_SERIALIZERS, type);
+        if (serializer != null) return serializer;
+        var klass = type.klass();
+        if (type.is_json_primitive()) return (JsonSerializer<T>) JsonPrimitiveSerializer.INSTANCE;
+        if (type.is_array()) return (JsonSerializer<T>) JsonArraySerializer.INSTANCE;
+        if (JsonValue.class.isAssignableFrom(klass)) return (JsonSerializer<T>) JsonValueSerializer.INSTANCE;
+        if (Map.class.isAssignableFrom(klass)) return (JsonSerializer<T>) JsonMapSerializer.INSTANCE;
+        if (Iterable.class.isAssignableFrom(klass)) return (JsonSerializer<T>) JsonIterableSerializer.INSTANCE;
+        return (JsonSerializer<T>) JsonObjectSerializer.INSTANCE;
     }
 }
@@ -16,32 +16,185 @@
 
 package sweetjson;
 
-import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
+// Describes the type a value is bound to or written from. It is built on the fully resolved
+// `java.lang.reflect.Type`, so type arguments nest (`List<List<T>>`, `Map<K, List<V>>`) and each
+// argument has its own Typedef. Generic types can be captured with an anonymous subclass:
+//     new Typedef<Map<String, List<Integer>>>() {}
+// Typedefs are interned on their resolved type, so equal types share one canonical instance;
+// equality is an identity check and SweetJson caches the binder it resolves for a type on it.
 @SuppressWarnings("unchecked")
 public class Typedef<T> {
-    private final String m_id;
+    // No-arg constructors, looked up once per class and adapted to `()Object`.
+    private static final ClassValue<MethodHandle> CONSTRUCTORS = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue (final Class<?> klass) {
+            try {
+                var constructor = klass.getDeclaredConstructor();
+                constructor.trySetAccessible();
+                return MethodHandles.lookup().unreflectConstructor(constructor)
+                        .asType(MethodType.methodType(Object.class));
+            } catch (ReflectiveOperationException exc) {
+                throw new RuntimeException(exc);
+            }
+        }
+    };
+
+    private static final Typedef<?>[] NO_ARGUMENTS = new Typedef<?>[0];
+
+    private static final ClassValue<Typedef<?>> CLASSES = new ClassValue<>() {
+        @Override
+        protected Typedef<?> computeValue (final Class<?> klass) {
+            return new Typedef<>(klass);
+        }
+    };
+
+    // Parameterized and generic array types; the keys keep the classes in them reachable.
+    private static final Map<Type, Typedef<?>> INTERNED = new ConcurrentHashMap<>();
+
+    // Binders and serializers resolved by SweetJson, along with the registry version they were resolved at.
+    static final class Resolved<V> {
+        final V value;
+        final int version;
+
+        Resolved (final V value, final int version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+
+    private final Typedef<T> m_canonical;
+    private final Type m_type;
     private final Class<T> m_klass;
+    private final Typedef<?>[] m_arguments;
     private final Class<?>[] m_type_arguments;
-    private boolean m_is_generic_type;
-    private final Map<String, Class<?>> m_type_parameter_map;
+    // Only set for arrays.
+    private final Typedef<?> m_component;
+    private volatile Resolved<JsonBinder<T>> m_binder;
+    private volatile Resolved<JsonSerializer<T>> m_serializer;
+
+    // Captures the type argument of an anonymous subclass.
+    protected Typedef () {
+        var superclass = getClass().getGenericSuperclass();
+        if (!(superclass instanceof ParameterizedType))
+            throw new RuntimeException("Typedef must be captured with a type argument!");
+        Typedef<T> captured = intern(canonicalize(((ParameterizedType) superclass).getActualTypeArguments()[0], null));
+        m_canonical = captured;
+        m_type = captured.m_type;
+        m_klass = captured.m_klass;
+        m_arguments = captured.m_arguments;
+        m_type_arguments = captured.m_type_arguments;
+        m_component = captured.m_component;
+    }
+
+    // `type` must already be canonical: no type variables or wildcards left in it.
+    private Typedef (final Type type) {
+        m_canonical = this;
+        m_type = type;
+        m_klass = (Class<T>) raw(type);
+        if (type instanceof ParameterizedType) {
+            var arguments = ((ParameterizedType) type).getActualTypeArguments();
+            m_arguments = new Typedef<?>[arguments.length];
+            m_type_arguments = new Class<?>[arguments.length];
+            for (int i = 0; i < arguments.length; i++) {
+                m_arguments[i] = intern(arguments[i]);
+                m_type_arguments[i] = m_arguments[i].m_klass;
+            }
+        } else {
+            m_arguments = NO_ARGUMENTS;
+            m_type_arguments = new Class<?>[]{};
+        }
+        if (type instanceof GenericArrayType)
+            m_component = intern(((GenericArrayType) type).getGenericComponentType());
+        else m_component = m_klass.isArray() ? intern(m_klass.getComponentType()) : null;
+    }
+
+    // Not computeIfAbsent: building a Typedef interns its arguments, which would update the map recursively.
+    private static <T> Typedef<T> intern (final Type type) {
+        if (type instanceof Class)
+            return (Typedef<T>) CLASSES.get((Class<?>) type);
+        var interned = INTERNED.get(type);
+        if (interned == null) {
+            var created = new Typedef<T>(type);
+            interned = INTERNED.putIfAbsent(type, created);
+            if (interned == null)
+                return created;
+        }
+        return (Typedef<T>) interned;
+    }
+
+    private static Class<?> raw (final Type type) {
+        if (type instanceof Class)
+            return (Class<?>) type;
+        if (type instanceof ParameterizedType)
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        if (type instanceof GenericArrayType)
+            return raw(((GenericArrayType) type).getGenericComponentType()).arrayType();
+        if (type instanceof TypeVariable)
+            return raw(((TypeVariable<?>) type).getBounds()[0]);
+        if (type instanceof WildcardType)
+            return raw(((WildcardType) type).getUpperBounds()[0]);
+        throw new RuntimeException("Unsupported type `" + type.getTypeName() + "`!");
+    }
 
-    private Typedef (final Class<T> klass, final Class<?>[] type_arguments) {
-        m_id = klass.getCanonicalName().toLowerCase();
-        m_klass = klass;
-        m_type_arguments = type_arguments;
-        if (klass.toGenericString().contains("<") && type_arguments.length > 0) {
-            m_is_generic_type = true;
-            m_type_parameter_map = JsonUtils.get_typearg_map(klass, type_arguments);
-        } else m_type_parameter_map = new HashMap<>();
+    // Substitutes the owner's type arguments for its type variables, all the way down. Wildcards
+    // become their bound and variables that can't be resolved (raw owners, method variables)
+    // become their erasure, which is what the field would have held anyway.
+    private static Type canonicalize (final Type type, final Typedef<?> owner) {
+        if (type instanceof Class)
+            return type;
+        if (type instanceof ParameterizedType) {
+            var parameterized = (ParameterizedType) type;
+            var arguments = parameterized.getActualTypeArguments();
+            for (int i = 0; i < arguments.length; i++)
+                arguments[i] = canonicalize(arguments[i], owner);
+            var owner_type = parameterized.getOwnerType();
+            return new Parameterized((Class<?>) parameterized.getRawType(),
+                    owner_type == null ? null : canonicalize(owner_type, owner), arguments);
+        }
+        if (type instanceof GenericArrayType) {
+            var component = canonicalize(((GenericArrayType) type).getGenericComponentType(), owner);
+            return component instanceof Class ? ((Class<?>) component).arrayType() : new GenericArray(component);
+        }
+        if (type instanceof WildcardType) {
+            var wildcard = (WildcardType) type;
+            var lower = wildcard.getLowerBounds();
+            return canonicalize(lower.length > 0 ? lower[0] : wildcard.getUpperBounds()[0], owner);
+        }
+        if (type instanceof TypeVariable && owner != null) {
+            var variable = (TypeVariable<?>) type;
+            var parameters = owner.m_klass.getTypeParameters();
+            for (int i = 0; i < owner.m_arguments.length; i++) {
+                if (parameters[i].equals(variable))
+                    return owner.m_arguments[i].m_type;
+            }
+        }
+        return raw(type);
     }
 
     public Class<T> klass () {
         return m_klass;
     }
 
+    public Type type () {
+        return m_type;
+    }
+
     public boolean is_array () {
         return klass().isArray();
     }
@@ -49,25 +202,58 @@ public class Typedef<T> {
     public boolean is_json_primitive () {
         if (m_klass.isPrimitive()) return true;
         return m_klass == String.class
+                || m_klass == Boolean.class
                 || m_klass == Byte.class
                 || m_klass == Short.class
                 || m_klass == Character.class
                 || m_klass == Integer.class
                 || m_klass == Long.class
                 || m_klass == Float.class
-                || m_klass == Double.class;
+                || m_klass == Double.class
+                || m_klass == BigDecimal.class
+                || m_klass == BigInteger.class;
     }
 
     public Class<?>[] type_args () {
         return m_type_arguments;
     }
 
+    public Typedef<?> type_arg_typedef (final int index) {
+        return m_arguments[index];
+    }
+
+    public Typedef<?> component_typedef () {
+        return m_component;
+    }
+
+    // Resolves a type declared inside this type (a field's generic type, say) against its type arguments.
+    public Typedef<?> resolve (final Type type) {
+        return intern(canonicalize(type, this));
+    }
+
+    public Typedef<?> array_type () {
+        return intern(m_type instanceof Class ? m_klass.arrayType() : new GenericArray(m_type));
+    }
+
     public boolean has_type_argument_mapping (final String type_parameter) {
-        return m_type_parameter_map.containsKey(type_parameter);
+        return get_type_argument(type_parameter) != null;
     }
 
+    // Argument of the type parameter with that name; `T[]` and deeper resolve to array classes.
     public Class<?> get_type_argument (final String type_parameter) {
-        return m_type_parameter_map.get(type_parameter);
+        var name = type_parameter;
+        int dimensions = 0;
+        for (; name.endsWith("[]"); dimensions++)
+            name = name.substring(0, name.length() - 2);
+        var parameters = m_klass.getTypeParameters();
+        for (int i = 0; i < m_type_arguments.length; i++) {
+            if (parameters[i].getName().equals(name)) {
+                var klass = m_type_arguments[i];
+                while (dimensions-- > 0) klass = klass.arrayType();
+                return klass;
+            }
+        }
+        return null;
     }
 
     public Class<?> type_arg1 () {
@@ -83,36 +269,56 @@ public class Typedef<T> {
     }
 
     public boolean is_generic_type () {
-        return m_is_generic_type;
+        return m_arguments.length > 0;
+    }
+
+    JsonBinder<T> cached_binder (final int version) {
+        var resolved = m_canonical.m_binder;
+        return resolved != null && resolved.version == version ? resolved.value : null;
+    }
+
+    void cache_binder (final JsonBinder<T> binder, final int version) {
+        m_canonical.m_binder = new Resolved<>(binder, version);
+    }
+
+    JsonSerializer<T> cached_serializer (final int version) {
+        var resolved = m_canonical.m_serializer;
+        return resolved != null && resolved.version == version ? resolved.value : null;
+    }
+
+    void cache_serializer (final JsonSerializer<T> serializer, final int version) {
+        m_canonical.m_serializer = new Resolved<>(serializer, version);
     }
 
     @Override
     public int hashCode () {
-        return m_id.hashCode() + 888;
+        return System.identityHashCode(m_canonical);
     }
 
     @Override
     public boolean equals (final Object other) {
-        if (!(other instanceof Typedef))
-            return false;
-        var other_type = (Typedef<T>) other;
-        return other_type.m_id.equals(m_id);
+        return other instanceof Typedef && ((Typedef<?>) other).m_canonical == m_canonical;
+    }
+
+    @Override
+    public String toString () {
+        return m_type.getTypeName();
     }
 
     public T create_instance () {
         try {
-            return klass().getDeclaredConstructor().newInstance();
-        } catch (NoSuchMethodException
-                | InstantiationException
-                | IllegalAccessException
-                | InvocationTargetException exc) {
-            throw new RuntimeException(exc);
+            Object instance = CONSTRUCTORS.get(m_klass).invokeExact();
+            return (T) instance;
+        } catch (RuntimeException | Error exc) {
+            throw exc;
+        } catch (Throwable throwable) {
+            throw new RuntimeException(throwable);
         }
     }
 
     public static class Builder<T> {
         private Class<T> m_klass;
-        private Class<?>[] m_type_args;
+        private Class<?>[] m_type_args = new Class<?>[]{};
 
         public Builder<T> set_klass (final Class<T> klass) {
             m_klass = klass;
@@ -127,15 +333,114 @@ public class Typedef<T> {
         public Typedef<T> build () {
             if (m_klass == null)
                 throw new RuntimeException("No klass specified!");
-            return new Typedef<T>(m_klass, m_type_args);
+            if (m_type_args.length == 0)
+                return wrap(m_klass);
+            var arguments = new Typedef<?>[m_type_args.length];
+            for (int i = 0; i < arguments.length; i++)
+                arguments[i] = wrap(m_type_args[i]);
+            return parameterized(m_klass, arguments);
         }
     }
 
     public static <T> Typedef<T> wrap (final Class<T> klass) {
-        return new Typedef<T>(klass, new Class<?>[]{});
+        return (Typedef<T>) CLASSES.get(klass);
+    }
+
+    public static Typedef<?> of (final Type type) {
+        return intern(canonicalize(type, null));
+    }
+
+    public static <T> Typedef<T> parameterized (final Class<T> klass, final Typedef<?>... arguments) {
+        var parameters = klass.getTypeParameters();
+        if (arguments.length != parameters.length) {
+            final var format = "Too few/many type arguments (expected: %d, supplied: %d)!";
+            throw new RuntimeException(String.format(format, parameters.length, arguments.length));
+        }
+        var types = new Type[arguments.length];
+        for (int i = 0; i < types.length; i++)
+            types[i] = arguments[i].m_type;
+        return intern(new Parameterized(klass, klass.getDeclaringClass(), types));
     }
 
     public static <T> Builder<T> builder () {
         return new Builder<T>();
     }
+
+    // Equal to (and hashed like) the JDK's own ParameterizedType, so resolved types can be
+    // compared with the ones reflection hands out.
+    private static final class Parameterized implements ParameterizedType {
+        private final Class<?> m_raw;
+        private final Type m_owner;
+        private final Type[] m_arguments;
+
+        private Parameterized (final Class<?> raw, final Type owner, final Type[] arguments) {
+            m_raw = raw;
+            m_owner = owner;
+            m_arguments = arguments;
+        }
+
+        @Override
+        public Type[] getActualTypeArguments () {
+            return m_arguments.clone();
+        }
+
+        @Override
+        public Type getRawType () {
+            return m_raw;
+        }
+
+        @Override
+        public Type getOwnerType () {
+            return m_owner;
+        }
+
+        @Override
+        public boolean equals (final Object other) {
+            if (!(other instanceof ParameterizedType))
+                return false;
+            var that = (ParameterizedType) other;
+            return m_raw.equals(that.getRawType()) && Objects.equals(m_owner, that.getOwnerType())
+                    && Arrays.equals(m_arguments, that.getActualTypeArguments());
+        }
+
+        @Override
+        public int hashCode () {
+            return Arrays.hashCode(m_arguments) ^ Objects.hashCode(m_owner) ^ m_raw.hashCode();
+        }
+
+        @Override
+        public String toString () {
+            return Arrays.stream(m_arguments).map(Type::getTypeName)
+                    .collect(Collectors.joining(", ", m_raw.getTypeName() + "<", ">"));
+        }
+    }
+
+    private static final class GenericArray implements GenericArrayType {
+        private final Type m_component;
+
+        private GenericArray (final Type component) {
+            m_component = component;
+        }
+
+        @Override
+        public Type getGenericComponentType () {
+            return m_component;
+        }
+
+        @Override
+        public boolean equals (final Object other) {
+            return other instanceof GenericArrayType
+                    && m_component.equals(((GenericArrayType) other).getGenericComponentType());
+        }
+
+        @Override
+        public int hashCode () {
+            return m_component.hashCode();
+        }
+
+        @Override
+        public String toString () {
+            return m_component.getTypeName() + "[]";
+        }
+    }
 }
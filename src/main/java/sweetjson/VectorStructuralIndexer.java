@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package sweetjson;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Classifies a block with the widest vectors the CPU has, a block being one 512-bit vector or two
+// 256-bit ones. Only loaded by StructuralIndexer when the jdk.incubator.vector module is present.
+final class VectorStructuralIndexer extends StructuralIndexer
+{
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED.length() > BLOCK
+            ? ByteVector.SPECIES_512 : ByteVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_512.withShape(SPECIES.vectorShape());
+    private static final ByteVector ZERO = ByteVector.zero(SPECIES);
+    private static final LongVector SHIFTS = LongVector.zero(LONGS).addIndex(8);
+
+    // VectorMask.toLong() isn't compiled to a single instruction on JDK 17 and ends up slower than
+    // the scalar classifier. Instead, the lanes are set to 0 or 1 and every 8 of them are packed
+    // into a byte by one multiplication, then the bytes are ORed together.
+    private static long bits (final VectorMask<Byte> mask)
+    {
+        return ZERO.blend((byte) 1, mask).reinterpretAsLongs()
+                .mul(0x0102040810204080L).lanewise(VectorOperators.LSHR, 56)
+                .lanewise(VectorOperators.LSHL, SHIFTS).reduceLanes(VectorOperators.OR);
+    }
+
+    @Override
+    void classify (final byte[] json, final int offset, final long[] masks)
+    {
+        long backslash = 0, quote = 0, op = 0, whitespace = 0;
+        for (int i = 0; i < BLOCK; i += SPECIES.length())
+        {
+            var bytes = ByteVector.fromArray(SPECIES, json, offset + i);
+            backslash |= bits(bytes.eq((byte) '\\')) << i;
+            quote |= bits(bytes.eq((byte) '"')) << i;
+            // Setting 0x20 folds `[` onto `{` and `]` onto `}`.
+            var folded = bytes.or((byte) 0x20);
+            op |= bits(folded.eq((byte) '{').or(folded.eq((byte) '}'))
+                    .or(bytes.eq((byte) ':')).or(bytes.eq((byte) ','))) << i;
+            // `\b`, `\t`, `\n`, `\f` and `\r` are 8 to 13, minus the vertical tab.
+            whitespace |= bits(bytes.eq((byte) ' ')
+                    .or(bytes.compare(VectorOperators.GE, (byte) 8)
+                            .and(bytes.compare(VectorOperators.LE, (byte) 13))
+                            .and(bytes.compare(VectorOperators.NE, (byte) 11)))) << i;
+        }
+        masks[0] = backslash;
+        masks[1] = quote;
+        masks[2] = op;
+        masks[3] = whitespace;
+    }
+}
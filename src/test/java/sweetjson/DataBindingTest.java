@@ -17,16 +17,30 @@
 package sweetjson;
 
 import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SuppressWarnings("unchecked")
 public class DataBindingTest {
@@ -38,7 +52,7 @@ public class DataBindingTest {
     void add_list_binder () {
         SweetJson.register_binder(Typedef.wrap(List.class), (value, typedef, bag) -> {
             var list = new ArrayList<>();
-            var arg_type = typedef.type_arg1();
+            var arg_type = typedef.type_arg_typedef(0);
             var elist = value.as_list();
             elist.forEach(entry -> list.add(entry.bind_to(arg_type)));
             return list;
@@ -65,14 +79,14 @@ public class DataBindingTest {
     static class C2<T> { private List<List<T>> values; }
 
     @Test
-    @Disabled
-    // TODO: we don't support nested generic parameters.
     void test_binding_to_complex_generic_types () {
         String data = "{\"values\": [[1], [2]]}";
         var json = parser(data).parse();
         C2<Byte> object = json.bind_to_generic(C2.class, Byte.class);
         assertEquals(object.values.get(0).get(0).byteValue(), 1);
         assertEquals(object.values.get(1).get(0).byteValue(), 2);
+        C2<Byte> read = SweetJson.read(data, new Typedef<C2<Byte>>() {});
+        assertEquals(read.values.get(1).get(0).byteValue(), 2);
     }
 
     static class C3 {
@@ -169,4 +183,436 @@ public class DataBindingTest {
         var object = parser(data).parse().bind_to_generic(C6.class, Integer.class);
         assertEquals(1, object.array[0][0]);
     }
+
+    static class C7 {
+        static class IC7 {
+            private String message;
+        }
+        private IC7 object;
+        private IC7[] objects;
+    }
+
+    @Test
+    void test_registering_binder_after_binding () {
+        String data = "{\"object\": {\"message\": \"original\"}, \"objects\": [{\"message\": \"original\"}]}";
+        var before = parser(data).parse().bind_to(C7.class);
+        assertEquals("original", before.object.message);
+
+        SweetJson.register_binder(Typedef.wrap(C7.IC7.class), (value, definition, bag) -> {
+            var model = new C7.IC7();
+            model.message = "custom";
+            return model;
+        });
+        var after = parser(data).parse().bind_to(C7.class);
+        assertEquals("custom", after.object.message);
+        assertEquals("custom", after.objects[0].message);
+    }
+
+    static class C8Static {
+        private static final long serialVersionUID = 1L;
+        private static int instances = 0;
+        private int value;
+    }
+
+    @Test
+    void test_binding_skips_static_fields () {
+        var object = parser("{\"value\": 3, \"serialVersionUID\": 2, \"instances\": 5}").parse().bind_to(C8Static.class);
+        assertEquals(3, object.value);
+        assertEquals(1L, C8Static.serialVersionUID);
+        assertEquals(0, C8Static.instances);
+    }
+
+    static class C8 {
+        private boolean z;
+        private byte b;
+        private char c;
+        private short s;
+        private int i;
+        private long l;
+        private float f;
+        private double d;
+    }
+
+    @Test
+    void test_binding_to_primitive_fields () {
+        String data = "{\"z\": true, \"b\": 1, \"c\": 65, \"s\": 3, \"i\": 4, \"l\": 5, \"f\": 6.5, \"d\": 7.25}";
+        var object = parser(data).parse().bind_to(C8.class);
+        assertEquals(true, object.z);
+        assertEquals(1, object.b);
+        assertEquals('A', object.c);
+        assertEquals(3, object.s);
+        assertEquals(4, object.i);
+        assertEquals(5L, object.l);
+        assertEquals(6.5f, object.f);
+        assertEquals(7.25, object.d);
+        assertThrows(RuntimeException.class, () -> parser("{\"i\": \"four\"}").parse().bind_to(C8.class));
+    }
+
+    static class C9 {
+        static class IC9 {
+            private String message;
+        }
+        private boolean z;
+        private byte b;
+        private char c;
+        private short s;
+        private int i;
+        private long l;
+        private float f;
+        private double d;
+        private Integer boxed;
+        private String string;
+        private int[] ints;
+        private IC9 inner;
+        private List<IC9> list;
+        private final int constant = 3;
+        private transient int skipped;
+    }
+
+    @Test
+    void test_generated_binder () {
+        SweetJson.register_generated_binder(C9.class);
+        assertTrue(SweetJson.get_binder(Typedef.wrap(C9.class)) instanceof GeneratedBinder);
+        String data = "{\"z\": true, \"b\": 1, \"c\": 65, \"s\": 3, \"i\": 4, \"l\": 5, \"f\": 6.5, \"d\": 7.25, "
+                + "\"boxed\": 8, \"string\": \"text\", \"ints\": [1, 2], \"inner\": {\"message\": \"hi\"}, "
+                + "\"list\": [{\"message\": \"item\"}], \"skipped\": 9, \"unknown\": 10, \"string\": \"text\"}";
+        var object = parser(data).parse().bind_to(C9.class);
+        assertTrue(object.z);
+        assertEquals(1, object.b);
+        assertEquals('A', object.c);
+        assertEquals(3, object.s);
+        assertEquals(4, object.i);
+        assertEquals(5L, object.l);
+        assertEquals(6.5f, object.f);
+        assertEquals(7.25, object.d);
+        assertEquals(8, object.boxed);
+        assertEquals("text", object.string);
+        assertEquals(2, object.ints[1]);
+        assertEquals("hi", object.inner.message);
+        assertEquals("item", object.list.get(0).message);
+        assertEquals(0, object.skipped);
+    }
+
+    @JsonModel
+    static class C10<T> {
+        int count;
+        boolean flag;
+        long id;
+        double ratio;
+        String name;
+        T value;
+        T[] array;
+        List<T> items;
+        Map<String, List<T>> nested;
+        transient int skipped;
+    }
+
+    @Test
+    void test_annotation_processor_binder () throws NoSuchMethodException {
+        var binder = SweetJson.get_binder(Typedef.wrap(C10.class));
+        assertTrue(binder instanceof JsonModelBinder);
+        // The token path is generated too instead of falling back to building a tree.
+        assertEquals(binder.getClass(), binder.getClass().getMethod("read", JsonTokenReader.class, Typedef.class, Bag.class).getDeclaringClass());
+        String data = "{\"count\": 3, \"flag\": true, \"id\": 9007199254740993, \"ratio\": 0.5, \"name\": null, "
+                + "\"value\": 4, \"array\": [5, 6], \"items\": [7], \"nested\": {\"k\": [8]}, \"skipped\": 9, "
+                + "\"unknown\": {\"a\": [10]}}";
+        C10<Integer> bound = parser(data).parse().bind_to(new Typedef<C10<Integer>>() {});
+        C10<Integer> read = SweetJson.read(data, new Typedef<C10<Integer>>() {});
+        for (var object : List.of(bound, read)) {
+            assertEquals(3, object.count);
+            assertTrue(object.flag);
+            assertEquals(9007199254740993L, object.id);
+            assertEquals(0.5, object.ratio);
+            assertEquals(null, object.name);
+            assertEquals(4, object.value);
+            assertEquals(6, object.array[1]);
+            assertEquals(7, object.items.get(0));
+            assertEquals(8, object.nested.get("k").get(0));
+            assertEquals(0, object.skipped);
+        }
+    }
+
+    @Test
+    void test_reading_directly_from_tokens () {
+        String data = "{\"z\": true, \"b\": 1, \"c\": 65, \"s\": 3, \"i\": 4, \"l\": 5, \"f\": 6.5, \"d\": 7.25}";
+        var primitives = SweetJson.read(data, Typedef.wrap(C8.class));
+        assertEquals(true, primitives.z);
+        assertEquals('A', primitives.c);
+        assertEquals(5L, primitives.l);
+        assertEquals(7.25, primitives.d);
+
+        data = "{\"value\": null, \"unknown\": {\"a\": [1, {}]}, \"object\": {\"integer\": 1, \"string\": null}}";
+        var nested = SweetJson.read(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), Typedef.wrap(C3.class));
+        assertEquals(5, nested.value);
+        assertEquals(1, nested.object.integer);
+        assertEquals("string", nested.object.string);
+
+        var array = SweetJson.read("[[1, null], [2]]", Typedef.wrap(Integer[][].class));
+        assertEquals(1, array[0].length);
+        assertEquals(2, array[1][0]);
+
+        // Custom binders only implementing construct() still work, through a JsonValue subtree.
+        C1<Byte> generic = SweetJson.read("{\"value\": 24, \"list\": [1, 2]}",
+                Typedef.<C1>builder().set_klass(C1.class).set_type_args(Byte.class).build());
+        assertEquals(24, generic.value.byteValue());
+        assertEquals(2, generic.list.get(1).byteValue());
+
+        assertThrows(RuntimeException.class, () -> SweetJson.read("{\"i\": \"four\"}", Typedef.wrap(C8.class)));
+        assertThrows(RuntimeException.class, () -> SweetJson.read("{\"i\": 4} {}", Typedef.wrap(C8.class)));
+        assertThrows(RuntimeException.class, () -> SweetJson.read("[1]", Typedef.wrap(C8.class)));
+    }
+
+    @Test
+    void test_reading_with_generated_binder () {
+        SweetJson.register_generated_binder(C9.class);
+        String data = "{\"i\": 4, \"boxed\": 8, \"ints\": [1, 2], \"inner\": {\"message\": \"hi\"}, "
+                + "\"list\": [{\"message\": \"item\"}], \"string\": null, \"skipped\": 9}";
+        var object = SweetJson.read(data, Typedef.wrap(C9.class));
+        assertEquals(4, object.i);
+        assertEquals(8, object.boxed);
+        assertEquals(2, object.ints[1]);
+        assertEquals("hi", object.inner.message);
+        assertEquals("item", object.list.get(0).message);
+        assertEquals(null, object.string);
+        assertEquals(0, object.skipped);
+    }
+
+    static class C11 {
+        private long id;
+        private Long boxed_id;
+        private BigDecimal amount;
+        private BigInteger big;
+    }
+
+    @Test
+    void test_binding_large_numbers_without_loss () {
+        String data = "{\"id\": 9007199254740993, \"boxed_id\": 9007199254740995, "
+                + "\"amount\": 12345678901234567890.123456789, \"big\": 123456789012345678901234567890}";
+        for (var object : List.of(parser(data).parse().bind_to(C11.class), SweetJson.read(data, Typedef.wrap(C11.class)))) {
+            assertEquals(9007199254740993L, object.id);
+            assertEquals(9007199254740995L, object.boxed_id);
+            assertEquals(new BigDecimal("12345678901234567890.123456789"), object.amount);
+            assertEquals(new BigInteger("123456789012345678901234567890"), object.big);
+        }
+    }
+
+    static class C12 {
+        private int[] ints;
+        private long[] longs;
+        private double[] doubles;
+        private float[] floats;
+        private byte[] bytes;
+        private short[] shorts;
+        private char[] chars;
+        private boolean[] bools;
+        private int[][] matrix;
+    }
+
+    @Test
+    void test_binding_primitive_arrays () {
+        var data = new StringBuilder("{\"ints\": [1, null, -2], \"longs\": [9007199254740993], \"doubles\": [");
+        for (int i = 0; i < 100; i++)
+            data.append(i == 0 ? "" : ", ").append(i).append(".5");
+        data.append("], \"floats\": [0.25], \"bytes\": [127, -128], \"shorts\": [300], \"chars\": [65, 66], "
+                + "\"bools\": [true, null, false], \"matrix\": [[1, 2], [], null, [3]]}");
+        for (var object : List.of(parser(data.toString()).parse().bind_to(C12.class),
+                SweetJson.read(data.toString(), Typedef.wrap(C12.class)))) {
+            assertArrayEquals(new int[]{1, -2}, object.ints);
+            assertArrayEquals(new long[]{9007199254740993L}, object.longs);
+            assertEquals(100, object.doubles.length);
+            assertEquals(99.5, object.doubles[99]);
+            assertArrayEquals(new float[]{0.25f}, object.floats);
+            assertArrayEquals(new byte[]{127, -128}, object.bytes);
+            assertArrayEquals(new short[]{300}, object.shorts);
+            assertArrayEquals(new char[]{'A', 'B'}, object.chars);
+            assertArrayEquals(new boolean[]{true, false}, object.bools);
+            assertEquals(3, object.matrix.length);
+            assertArrayEquals(new int[]{3}, object.matrix[2]);
+        }
+    }
+
+    static class C13 {
+        private ArrayList<Integer> ints;
+        private Set<String> tags;
+        private SortedSet<String> sorted;
+        private Deque<Long> queue;
+        private Collection<C4.IC4> items;
+        private LinkedHashMap<String, Double> weights;
+        private TreeMap<String, C4.IC4> named;
+    }
+
+    @Test
+    void test_binding_collections_and_maps () {
+        String data = "{\"ints\": [3, null, 1], \"tags\": [\"b\", \"a\", \"b\"], \"sorted\": [\"b\", \"a\"], "
+                + "\"queue\": [9007199254740993, 2], \"items\": [{\"message\": \"x\"}, {\"message\": \"y\"}], "
+                + "\"weights\": {\"z\": 0.5, \"a\": 2, \"n\": null}, \"named\": {\"k\": {\"message\": \"v\"}}}";
+        for (var object : List.of(parser(data).parse().bind_to(C13.class), SweetJson.read(data, Typedef.wrap(C13.class)))) {
+            assertEquals(List.of(3, 1), object.ints);
+            assertEquals(List.of("b", "a"), new ArrayList<>(object.tags));
+            assertEquals(List.of("a", "b"), new ArrayList<>(object.sorted));
+            assertEquals(9007199254740993L, object.queue.pollFirst());
+            assertEquals(2L, object.queue.pollFirst());
+            assertEquals(List.of("x", "y"), object.items.stream().map(item -> item.message).toList());
+            assertEquals(Set.of("z", "a"), object.weights.keySet());
+            assertEquals(2.0, object.weights.get("a"));
+            assertEquals("v", object.named.get("k").message);
+        }
+    }
+
+    static class C14<K, V> {
+        private LinkedHashMap<K, ArrayList<V>> groups;
+        private V[][] grid;
+        private ArrayList<? extends V> bounded;
+    }
+
+    @Test
+    void test_binding_nested_generic_types () {
+        String data = "{\"groups\": {\"a\": [1, 2], \"b\": []}, \"grid\": [[3], [4, 5]], \"bounded\": [6]}";
+        var definition = Typedef.parameterized(C14.class, Typedef.wrap(String.class), Typedef.wrap(Short.class));
+        for (var object : List.of(parser(data).parse().bind_to(definition), SweetJson.read(data, definition))) {
+            C14<String, Short> model = object;
+            assertEquals(List.of((short) 1, (short) 2), model.groups.get("a"));
+            assertEquals(List.of(), model.groups.get("b"));
+            assertEquals(Short[][].class, model.grid.getClass());
+            assertEquals((short) 5, model.grid[1][1]);
+            assertEquals((short) 6, model.bounded.get(0));
+        }
+
+        var captured = new Typedef<LinkedHashMap<String, ArrayList<Set<Integer>>>>() {};
+        assertEquals(Set.class, captured.type_arg_typedef(1).type_arg_typedef(0).klass());
+        var map = parser("{\"x\": [[1, 1, 2]]}").parse().bind_to(captured);
+        assertEquals(Set.of(1, 2), map.get("x").get(0));
+        assertThrows(RuntimeException.class, () -> Typedef.parameterized(C14.class, Typedef.wrap(String.class)));
+    }
+
+    static class C15<T> {
+        private T value;
+    }
+
+    @Test
+    void test_typedefs_are_interned_with_their_type_arguments () {
+        var integers = Typedef.parameterized(C15.class, Typedef.wrap(Integer.class));
+        var strings = Typedef.<C15>builder().set_klass(C15.class).set_type_args(String.class).build();
+        assertTrue(Typedef.wrap(C15.class) == Typedef.wrap(C15.class));
+        assertTrue(integers == Typedef.<C15>builder().set_klass(C15.class).set_type_args(Integer.class).build());
+        assertEquals(integers, new Typedef<C15<Integer>>() {});
+        assertEquals(integers.hashCode(), new Typedef<C15<Integer>>() {}.hashCode());
+        assertTrue(strings == Typedef.of(new Typedef<C15<String>>() {}.type()));
+        assertTrue(!integers.equals(strings) && !integers.equals(Typedef.wrap(C15.class)));
+
+        SweetJson.register_binder(integers, (value, typedef, bag) -> {
+            var model = new C15<Integer>();
+            model.value = -Integer.parseInt(value.as_map().get("value").as_string());
+            return model;
+        });
+        var json = parser("{\"value\": \"7\"}").parse();
+        C15<Integer> negated = json.bind_to(integers);
+        C15<String> plain = json.bind_to_generic(C15.class, String.class);
+        assertEquals(-7, negated.value);
+        assertEquals("7", plain.value);
+    }
+
+    static class C16 {
+        private int id;
+        private ArrayList<String> tags;
+        private C1<Integer> nested;
+    }
+
+    static class C17 {
+    }
+
+    @Test
+    void test_concurrent_binding_while_registering () throws Exception {
+        String data = "{\"id\": %d, \"tags\": [\"t%d\"], \"nested\": {\"value\": %d}}";
+        var definition = Typedef.wrap(C16.class);
+        var pool = Executors.newFixedThreadPool(8);
+        try {
+            var results = new ArrayList<Future<Boolean>>();
+            for (int task = 0; task < 64; task++) {
+                final int seed = task;
+                results.add(pool.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        int id = seed * 1000 + i;
+                        var json = String.format(data, id, id, id);
+                        if (i % 16 == 0)
+                            SweetJson.register_binder(Typedef.wrap(C17.class), (value, typedef, bag) -> new C17());
+                        C16 object = i % 2 == 0 ? parser(json).parse().bind_to(definition) : SweetJson.read(json, definition);
+                        if (object.id != id || !object.tags.get(0).equals("t" + id) || object.nested.value != id)
+                            return false;
+                    }
+                    return true;
+                }));
+            }
+            for (var result : results)
+                assertTrue(result.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    static class C18 {
+        private C4.IC4[] array;
+        private ArrayList<C16> records;
+    }
+
+    @Test
+    void test_parallel_binding_of_arrays_and_collections () {
+        var data = new StringBuilder("{\"array\": [");
+        for (int i = 0; i < 5000; i++)
+            data.append(i == 0 ? "" : ", ").append(i % 100 == 7 ? "null" : "{\"message\": \"m" + i + "\"}");
+        data.append("], \"records\": [");
+        for (int i = 0; i < 5000; i++)
+            data.append(i == 0 ? "" : ", ").append(String.format("{\"id\": %d, \"tags\": [\"t%d\"], \"nested\": {\"value\": %d}}", i, i, i));
+        var json = data.append("]}").toString();
+        var definition = Typedef.wrap(C18.class);
+        var sequential = parser(json).parse().bind_to(definition);
+        var pool = new ForkJoinPool(4);
+        try {
+            for (var tree : List.of(parser(json).parse(), JsonParser.parse_lazy(json))) {
+                var parallel = tree.bind_to(definition, Bag.put_parallel_binding(pool, 100));
+                assertEquals(sequential.array.length, parallel.array.length);
+                for (int i = 0; i < parallel.array.length; i++)
+                    assertEquals(sequential.array[i].message, parallel.array[i].message);
+                assertEquals(5000, parallel.records.size());
+                for (int i = 0; i < 5000; i++) {
+                    var record = parallel.records.get(i);
+                    assertEquals(i, record.id);
+                    assertEquals("t" + i, record.tags.get(0));
+                    assertEquals(i, record.nested.value);
+                }
+            }
+            var malformed = parser("[1, 2, \"three\", 4]").parse();
+            assertThrows(RuntimeException.class, () -> malformed.bind_to(Typedef.wrap(Integer[].class), Bag.put_parallel_binding(pool, 1)));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Raw List and Map are avoided: other tests register global binders for them.
+    @SuppressWarnings("rawtypes")
+    static class C19 {
+        private ArrayList list;
+        private Collection collection;
+        private LinkedHashMap map;
+        private TreeMap<String, Object> values;
+        private Object any;
+        private Object[] array;
+    }
+
+    @Test
+    void test_binding_untyped_values_to_natural_types () {
+        String data = "{\"list\": [1, 2.5, \"s\", true, null, [3], {\"k\": 4}], \"collection\": [\"c\"], "
+                + "\"map\": {\"a\": [1, {\"b\": null}]}, \"values\": {\"x\": 123456789012345678901234567890}, "
+                + "\"any\": {\"n\": false}, \"array\": [7, \"eight\"]}";
+        for (var object : List.of(parser(data).parse().bind_to(C19.class), SweetJson.read(data, Typedef.wrap(C19.class)))) {
+            assertEquals(List.of(1L, 2.5, "s", true, List.of(3L), Map.of("k", 4L)), object.list);
+            assertEquals(List.of("c"), new ArrayList<>(object.collection));
+            var inner = new HashMap<String, Object>();
+            inner.put("b", null);
+            assertEquals(Map.of("a", List.of(1L, inner)), object.map);
+            assertEquals(new BigDecimal("123456789012345678901234567890"), object.values.get("x"));
+            assertEquals(Map.of("n", false), object.any);
+            assertArrayEquals(new Object[]{7L, "eight"}, object.array);
+        }
+    }
 }
@@ -18,6 +18,21 @@
 package sweetjson;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -187,18 +202,25 @@ class JsonParserTest
         assert_not_number("1.1ex");
         assert_not_number("1.1e1x");
 
-        // FIXME: These throw in Gson.
         // fraction has no digit
-        //assert_not_number("0.");
-        //assert_not_number("-0.");
-        //assert_not_number("0.e1");
-        //assert_not_number("-0.e1");
+        assert_not_number("0.");
+        assert_not_number("-0.");
+        assert_not_number("0.e1");
+        assert_not_number("-0.e1");
 
         // no leading digit
-        // assert_not_number(".0");
-        //assert_not_number("-.0");
-        // assert_not_number(".0e1");
-        // assert_not_number("-.0e1");
+        assert_not_number(".0");
+        assert_not_number("-.0");
+        assert_not_number(".0e1");
+        assert_not_number("-.0e1");
+
+        // leading zeros, explicit plus, misplaced signs
+        assert_not_number("01");
+        assert_not_number("-01.5");
+        assert_not_number("+1");
+        assert_not_number("1-2");
+        assert_not_number("1e+-2");
+        assert_not_number("--1");
     }
 
     @Test
@@ -278,4 +300,507 @@ class JsonParserTest
     {
         assertThrows(RuntimeException.class, () -> parser("{\"a\": 1,2}").parse());
     }
+
+    @Test
+    void test_token_stream ()
+    {
+        var tokens = JsonParser.tokens("{\"a\": [1.5, \"x\", true, null], \"b\": {}}");
+        assertEquals(JsonTokenReader.Token.START_OBJECT, tokens.next());
+        assertEquals(JsonTokenReader.Token.KEY, tokens.next());
+        assertEquals("a", tokens.string_value());
+        assertEquals(JsonTokenReader.Token.START_ARRAY, tokens.next());
+        assertEquals(JsonTokenReader.Token.NUMBER, tokens.next());
+        assertEquals(1.5, tokens.number_value());
+        assertEquals(JsonTokenReader.Token.STRING, tokens.next());
+        assertEquals("x", tokens.string_value());
+        assertEquals(JsonTokenReader.Token.BOOL, tokens.next());
+        assertTrue(tokens.bool_value());
+        assertEquals(JsonTokenReader.Token.NULL, tokens.next());
+        assertEquals(JsonTokenReader.Token.END_ARRAY, tokens.next());
+        assertEquals(JsonTokenReader.Token.KEY, tokens.next());
+        assertEquals("b", tokens.string_value());
+        assertEquals(JsonTokenReader.Token.START_OBJECT, tokens.next());
+        assertEquals(JsonTokenReader.Token.END_OBJECT, tokens.next());
+        assertEquals(JsonTokenReader.Token.END_OBJECT, tokens.next());
+        assertEquals(JsonTokenReader.Token.END_DOCUMENT, tokens.next());
+    }
+
+    @Test
+    void test_skipping_values_in_token_stream ()
+    {
+        var tokens = JsonParser.tokens("[{\"skip\": [1, {\"x\": \"\\\"]\"}]}, 42]");
+        assertEquals(JsonTokenReader.Token.START_ARRAY, tokens.next());
+        tokens.skip_value();
+        assertEquals(JsonTokenReader.Token.NUMBER, tokens.next());
+        assertEquals(42, tokens.number_value());
+        assertEquals(JsonTokenReader.Token.END_ARRAY, tokens.next());
+        assertEquals(JsonTokenReader.Token.END_DOCUMENT, tokens.next());
+    }
+
+    @Test
+    void test_malformed_token_stream ()
+    {
+        assertThrows(RuntimeException.class, () -> JsonParser.tokens("[1, 2").read_value());
+        assertThrows(RuntimeException.class, () -> JsonParser.tokens("{\"a\" 1}").read_value());
+        assertThrows(RuntimeException.class, () -> {
+            var tokens = JsonParser.tokens("[][]");
+            tokens.read_value();
+            tokens.next();
+        });
+    }
+
+    @Test
+    void test_token_stream_across_buffer_boundaries ()
+    {
+        var builder = new StringBuilder("[");
+        for (int i = 0; i < 2000; i++)
+            builder.append(i).append(".25, \"").append("\u00e9\\n".repeat(i % 13)).append("\", ");
+        builder.append("\"").append("x".repeat(20000)).append("\"]");
+        var json = builder.toString();
+
+        var expected = parser(json).parse().as_list();
+        var stream = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+        try (var tokens = JsonParser.tokens(stream))
+        {
+            var actual = tokens.read_value().as_list();
+            assertEquals(JsonTokenReader.Token.END_DOCUMENT, tokens.next());
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++)
+                assertEquals(expected.get(i).as_object(), actual.get(i).as_object());
+        }
+    }
+
+    @Test
+    void test_parsing_streams (@TempDir Path directory) throws IOException
+    {
+        var json = "  {\"a\": [1, \"\u00e9t\u00e9\", {\"b\": null}], \"c\": \"" + "y".repeat(10000) + "\"}\n";
+        var bytes = json.getBytes(StandardCharsets.UTF_8);
+        var file = Files.write(directory.resolve("data.json"), bytes);
+
+        var values = new JsonValue[] {
+                JsonParser.parse(new ByteArrayInputStream(bytes)),
+                JsonParser.parse(new StringReader(json)),
+                JsonParser.parse(Channels.newChannel(new ByteArrayInputStream(bytes))),
+                JsonParser.parse(file),
+                JsonParser.parse_mapped(file)
+        };
+        for (var value : values)
+        {
+            var list = value.as_map().get("a").as_list();
+            assertEquals(1, list.get(0).as_int());
+            assertEquals("\u00e9t\u00e9", list.get(1).as_string());
+            assertTrue(list.get(2).as_map().get("b").is_null());
+            assertEquals(10000, value.as_map().get("c").as_string().length());
+        }
+    }
+
+    @Test
+    void test_mapped_file_segments (@TempDir Path directory) throws IOException
+    {
+        // Tiny segments force multi-byte sequences to straddle segment boundaries.
+        var text = "[" + "\"\u00e9\u4e2d\ud83d\ude00\", 12345, ".repeat(50) + "0]";
+        var file = Files.writeString(directory.resolve("data.json"), text, StandardCharsets.UTF_8);
+        try (var stream = new MappedFileInputStream(file, 7))
+        {
+            var value = (new JsonParser(stream)).parse();
+            assertEquals("\u00e9\u4e2d\ud83d\ude00", value.as_list().get(0).as_string());
+        }
+        try (var stream = new MappedFileInputStream(file, 7))
+        {
+            assertEquals(text, new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void test_utf8_strings ()
+    {
+        var json = "[\"plain\", \"caf\u00e9\", \"\u4e2d\u6587\", \"\ud83d\ude00 \\u00e9\\n\\/\"]";
+        var list = JsonParser.parse(json.getBytes(StandardCharsets.UTF_8)).as_list();
+        assertEquals("plain", list.get(0).as_string());
+        assertEquals("caf\u00e9", list.get(1).as_string());
+        assertEquals("\u4e2d\u6587", list.get(2).as_string());
+        assertEquals("\ud83d\ude00 \u00e9\n/", list.get(3).as_string());
+    }
+
+    @Test
+    void test_malformed_utf8 ()
+    {
+        // Stray continuation byte, truncated sequence, overlong encoding of `/` and an encoded surrogate.
+        byte[][] malformed = {
+                {'[', '"', (byte) 0x80, '"', ']'},
+                {'[', '"', (byte) 0xE4, (byte) 0xB8, '"', ']'},
+                {'[', '"', (byte) 0xC0, (byte) 0xAF, '"', ']'},
+                {'[', '"', (byte) 0xED, (byte) 0xA0, (byte) 0x80, '"', ']'},
+        };
+        for (var json : malformed)
+            assertThrows(RuntimeException.class, () -> JsonParser.parse(json));
+    }
+
+    private static void assert_same_tree (final JsonValue expected, final JsonValue actual)
+    {
+        assertEquals(expected.get_type(), actual.get_type());
+        if (expected.is_object())
+        {
+            assertEquals(expected.as_map().keySet(), actual.as_map().keySet());
+            for (var key : expected.as_map().keySet())
+                assert_same_tree(expected.as_map().get(key), actual.as_map().get(key));
+        } else if (expected.is_array())
+        {
+            assertEquals(expected.as_list().size(), actual.as_list().size());
+            for (int i = 0; i < expected.as_list().size(); i++)
+                assert_same_tree(expected.as_list().get(i), actual.as_list().get(i));
+        } else assertEquals(expected.as_object(), actual.as_object());
+    }
+
+    @Test
+    void test_lazy_parsing ()
+    {
+        var json = "{\"a\": [1, -2.5e3, \"x\\ty\", {\"b\": null, \"c\": [[], {}]}], "
+                + "\"caf\u00e9\": true, \"d\": {\"e\": false, \"f\": \"\u4e2d\"}}";
+        var lazy = JsonParser.parse_lazy(json);
+        assertEquals(JsonValue.JsonType.OBJECT, lazy.get_type());
+        assert_same_tree(parser(json).parse(), lazy);
+        assertTrue(JsonParser.parse_lazy("[null]").as_list().get(0).is_null());
+    }
+
+    @Test
+    void test_lazy_parsing_validates_structure ()
+    {
+        assertThrows(RuntimeException.class, () -> JsonParser.parse_lazy(""));
+        assertThrows(RuntimeException.class, () -> JsonParser.parse_lazy("{\"a\": [1, 2}"));
+        assertThrows(RuntimeException.class, () -> JsonParser.parse_lazy("{\"a\": 1,}"));
+        assertThrows(RuntimeException.class, () -> JsonParser.parse_lazy("{\"\": 1}"));
+        assertThrows(RuntimeException.class, () -> JsonParser.parse_lazy("{a: 1}"));
+        assertThrows(RuntimeException.class, () -> JsonParser.parse_lazy("[][]"));
+        // Strings are validated while indexing, not only once they're accessed.
+        assertThrows(RuntimeException.class, () -> JsonParser.parse_lazy("{\"a\": \"\\x\"}"));
+        assertThrows(RuntimeException.class, () -> JsonParser.parse_lazy("{\"\\q\": 1}"));
+        assertThrows(RuntimeException.class, () -> JsonParser.parse_lazy("[\"\\u12G4\"]"));
+        assertThrows(RuntimeException.class, () -> JsonParser.parse_lazy(new byte[]{'[', '"', (byte) 0xC3, '"', ']'}));
+    }
+
+    @Test
+    void test_numbers_keep_their_kind ()
+    {
+        var json = "[9007199254740993, -9223372036854775808, 9223372036854775808, 0.1, "
+                + "3.14159265358979323846264338327950288, 1e2]";
+        for (var document : new JsonValue[]{JsonParser.parse(json), JsonParser.parse_lazy(json)})
+        {
+            var list = document.as_list();
+            assertEquals(JsonValue.NumberKind.LONG, list.get(0).number_kind());
+            assertEquals(9007199254740993L, list.get(0).as_long());
+            assertEquals(9007199254740993L, list.get(0).as_object());
+            assertEquals(Long.MIN_VALUE, list.get(1).as_long());
+            assertEquals(JsonValue.NumberKind.BIG, list.get(2).number_kind());
+            assertEquals(new BigInteger("9223372036854775808"), list.get(2).as_big_integer());
+            assertEquals(9.223372036854775808E18, list.get(2).as_double());
+            assertEquals(JsonValue.NumberKind.DOUBLE, list.get(3).number_kind());
+            assertEquals(0.1, list.get(3).as_object());
+            assertEquals(JsonValue.NumberKind.BIG, list.get(4).number_kind());
+            assertEquals(new BigDecimal("3.14159265358979323846264338327950288"), list.get(4).as_big_decimal());
+            assertEquals(Math.PI, list.get(4).as_double());
+            assertEquals(100, list.get(5).as_long());
+        }
+
+        try (var tokens = JsonParser.tokens("[9007199254740993]"))
+        {
+            tokens.next();
+            assertEquals(9007199254740993L, tokens.next_long());
+        }
+    }
+
+    private static void assert_parses_like_java (final String number)
+    {
+        var expected = Double.parseDouble(number);
+        var value = parser("[" + number + "]").parse().as_list().get(0);
+        assertEquals(expected, value.as_double(), number);
+        assertEquals(expected, JsonParser.parse_lazy("[" + number + "]").as_list().get(0).as_double(), number);
+    }
+
+    @Test
+    void test_number_parsing_matches_double_parse_double ()
+    {
+        for (var number : new String[]{"0", "-0.0", "1e-400", "1e400", "4.9e-324", "2.4e-324", "2.5e-324",
+                "2.2250738585072011e-308", "2.2250738585072014e-308", "1.7976931348623157e308",
+                "9007199254740993.0", "9007199254740993e0", "0.1", "1E22", "1e23", "7.3177701707893310e+15",
+                "123456789012345678901234567890e-10", "1.00000000000000011102230246251565404236316680908203125",
+                "0.000000000000000000000000000000000000000000001", "1e-22", "8.41e21", "5e-324", "1e308"})
+            assert_parses_like_java(number);
+
+        var random = new Random(2020);
+        for (int i = 0; i < 100_000; i++)
+        {
+            // Shortest representations of random doubles, over the whole exponent range.
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (!Double.isNaN(value) && !Double.isInfinite(value))
+                assert_parses_like_java(Double.toString(value));
+            // Random digit strings with random exponents, hitting the slow and ambiguous paths.
+            var digits = new StringBuilder(random.nextBoolean() ? "-" : "");
+            digits.append(1 + random.nextInt(9));
+            int fraction = random.nextBoolean() ? 1 + random.nextInt(10) : 0;
+            for (int j = random.nextInt(12); j > 0; j--)
+                digits.append(random.nextInt(10));
+            if (fraction > 0)
+                digits.append('.');
+            for (int j = fraction; j > 0; j--)
+                digits.append(random.nextInt(10));
+            digits.append('e').append(random.nextInt(700) - 350);
+            assert_parses_like_java(digits.toString());
+        }
+    }
+
+    @Test
+    void test_numbers_across_stream_refills ()
+    {
+        var json = new StringBuilder("[");
+        for (int i = 0; i < 5000; i++)
+            json.append(i == 0 ? "" : ",").append(i).append(".").append(i).append("e-3");
+        json.append("]");
+        var list = JsonParser.parse(new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8))).as_list();
+        for (int i = 0; i < 5000; i++)
+            assertEquals(Double.parseDouble(i + "." + i + "e-3"), list.get(i).as_double());
+    }
+
+    private static String written (final JsonValue value)
+    {
+        var out = new StringBuilder();
+        SweetJson.write(value, out);
+        return out.toString();
+    }
+
+    @Test
+    void test_parallel_parsing_matches_sequential_parsing ()
+    {
+        var random = new Random(11);
+        var builder = new StringBuilder(" \n[");
+        for (int i = 0; i < 20000; i++)
+        {
+            if (i > 0) builder.append(i % 3 == 0 ? ",\n  " : ",");
+            switch (i % 5)
+            {
+                case 0 -> builder.append("{\"id\": ").append(i).append(", \"text\": \"],[{\\\"}\\\\\", \"list\": [1, [2, {}]]}");
+                case 1 -> builder.append(random.nextDouble());
+                case 2 -> builder.append("\"caf\u00e9 \\\"],\\\\\"");
+                case 3 -> builder.append(i % 2 == 0 ? "null" : "true");
+                default -> builder.append("[[], [{\"a\": \"}\"}], \"[\"]");
+            }
+        }
+        var bytes = builder.append("]\n").toString().getBytes(StandardCharsets.UTF_8);
+        var pool = new ForkJoinPool(4);
+        try
+        {
+            var parallel = JsonParser.parse_parallel(bytes, pool);
+            assertEquals(20000, parallel.as_list().size());
+            assertEquals(written(JsonParser.parse(bytes)), written(parallel));
+        } finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void test_parallel_parsing_edge_cases ()
+    {
+        assertTrue(JsonParser.parse_parallel("[]").as_list().isEmpty());
+        assertTrue(JsonParser.parse_parallel(" [ \n ] ").as_list().isEmpty());
+        assertEquals(1, JsonParser.parse_parallel("[1]").as_list().get(0).as_long());
+        assertEquals("b", JsonParser.parse_parallel("{\"a\": [\"b\"]}").as_map().get("a").as_list().get(0).as_string());
+        for (var malformed : new String[]{"[1,]", "[1,,2]", "[,1]", "[1] x", "[1 2]", "[\"abc", "[{]}", "[[1]", "[1]]",
+                "[1}", "[{\"a\":1}}"})
+            assertThrows(RuntimeException.class, () -> JsonParser.parse_parallel(malformed), malformed);
+    }
+
+    private static void append_random_value (final StringBuilder out, final Random random, final int depth)
+    {
+        String[] spaces = {"", " ", "\n", "\t", "\r\n  ", "\f", "\b"};
+        out.append(spaces[random.nextInt(spaces.length)]);
+        switch (depth > 4 ? 2 + random.nextInt(4) : random.nextInt(6))
+        {
+            case 0 -> {
+                out.append('[');
+                for (int i = random.nextInt(6); i > 0; i--)
+                {
+                    append_random_value(out, random, depth + 1);
+                    out.append(i > 1 ? "," : "");
+                }
+                out.append(']');
+            }
+            case 1 -> {
+                out.append('{');
+                for (int i = random.nextInt(6); i > 0; i--)
+                {
+                    out.append("\"k").append(random.nextInt(1000)).append("\":");
+                    append_random_value(out, random, depth + 1);
+                    out.append(i > 1 ? "," : "");
+                }
+                out.append('}');
+            }
+            case 2 -> {
+                // Runs of backslashes and structural characters in strings of every length, so
+                // that escapes and strings straddle the 64-byte blocks of the indexer.
+                out.append('"');
+                for (int i = random.nextInt(90); i > 0; i--)
+                {
+                    switch (random.nextInt(8))
+                    {
+                        case 0 -> out.append("\\\\".repeat(1 + random.nextInt(3)));
+                        case 1 -> out.append("\\\"");
+                        case 2 -> out.append("{}[]:,".charAt(random.nextInt(6)));
+                        case 3 -> out.append('\u00e9');
+                        default -> out.append((char) ('a' + random.nextInt(26)));
+                    }
+                }
+                out.append('"');
+            }
+            case 3 -> out.append(random.nextBoolean() ? random.nextLong() : random.nextDouble() * 1e6);
+            default -> out.append(new String[]{"true", "false", "null"}[random.nextInt(3)]);
+        }
+        out.append(spaces[random.nextInt(spaces.length)]);
+    }
+
+    @Test
+    void test_indexed_parsing_matches_sequential_parsing ()
+    {
+        var random = new Random(17);
+        for (var indexer : new StructuralIndexer[]{StructuralIndexer.INSTANCE, new StructuralIndexer()})
+        {
+            for (int i = 0; i < 500; i++)
+            {
+                var builder = new StringBuilder();
+                while (builder.length() == 0 || builder.charAt(builder.length() - 1) == '"')
+                {
+                    builder.setLength(0);
+                    append_random_value(builder, random, random.nextInt(2) == 0 ? 0 : 5);
+                }
+                var json = random.nextBoolean() ? "[" + builder + "]" : "{\"value\": " + builder + "}";
+                var bytes = json.getBytes(StandardCharsets.UTF_8);
+                var expected = written(new JsonParser(bytes).parse());
+                assertEquals(expected, written(IndexedParser.parse(bytes, indexer)), json);
+                // The smallest window there is, so that values straddle windows all the time.
+                assertEquals(expected, written(IndexedParser.parse(bytes, indexer, StructuralIndexer.BLOCK + 2)), json);
+            }
+        }
+    }
+
+    @Test
+    void test_indexers_agree_on_arbitrary_input ()
+    {
+        var random = new Random(23);
+        var alphabet = "{}[]:,\" \\\\\\ab1\n\t\u00e9".getBytes(StandardCharsets.UTF_8);
+        var scalar = new StructuralIndexer();
+        for (int i = 0; i < 2000; i++)
+        {
+            var bytes = new byte[random.nextInt(300)];
+            for (int j = 0; j < bytes.length; j++)
+                bytes[j] = alphabet[random.nextInt(alphabet.length)];
+            int[] expected;
+            try
+            {
+                expected = scalar.index(bytes);
+            } catch (RuntimeException exc)
+            {
+                assertThrows(RuntimeException.class, () -> StructuralIndexer.INSTANCE.index(bytes));
+                continue;
+            }
+            assertArrayEquals(expected, StructuralIndexer.INSTANCE.index(bytes));
+        }
+    }
+
+    @Test
+    void test_indexed_parsing_rejects_malformed_input ()
+    {
+        assertEquals(1, IndexedParser.parse("[1]".getBytes(StandardCharsets.UTF_8)).as_list().get(0).as_long());
+        assertTrue(IndexedParser.parse(" { } ".getBytes(StandardCharsets.UTF_8)).as_map().isEmpty());
+        for (var malformed : new String[]{"", " ", "1", "\"a\"", "{\"a\":}", "{\"a\": 1,}", "{a:true}", "{'a':true}",
+                "[][]", "{}{}", "\"a\": \"1\"", "{\"a\":  \"an unterminated string}", "{\"\": 1}", "{\"a\": 1,2}",
+                "[1,]", "[,1]", "[1 2]", "[truex]", "[nul]", "[12abc]", "[\"a\"b]", "[1]]", "[[1]", "{\"a\" 1}",
+                "[\"\\\"]", "[-]", "{\"a\": [1, 2}"})
+        {
+            var bytes = malformed.getBytes(StandardCharsets.UTF_8);
+            assertThrows(RuntimeException.class, () -> IndexedParser.parse(bytes), malformed);
+            assertThrows(RuntimeException.class, () -> IndexedParser.parse(bytes, new StructuralIndexer()), malformed);
+            assertThrows(RuntimeException.class,
+                    () -> IndexedParser.parse(bytes, StructuralIndexer.INSTANCE, StructuralIndexer.BLOCK + 2), malformed);
+        }
+    }
+
+    @Test
+    void test_json_lines ()
+    {
+        var long_text = "x".repeat(200_000);
+        var input = "{\"id\": 1}\n\n  \r\n[1, 2]\r\n\"" + long_text + "\"\n42\nnull\n{\"id\": 2}";
+        try (var lines = JsonParser.lines(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))))
+        {
+            var values = lines.stream().toList();
+            assertEquals(6, values.size());
+            assertEquals(1, values.get(0).as_map().get("id").as_long());
+            assertEquals(2, values.get(1).as_list().size());
+            assertEquals(long_text, values.get(2).as_string());
+            assertEquals(42, values.get(3).as_long());
+            assertTrue(values.get(4).is_null());
+            assertEquals(2, values.get(5).as_map().get("id").as_long());
+        }
+
+        var numbers = JsonParser.lines(new ByteArrayInputStream("1\n2\n\n3\n".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(List.of(1, 2, 3), numbers.stream(Typedef.wrap(Integer.class)).toList());
+        assertFalse(numbers.iterator().hasNext());
+
+        var malformed = JsonParser.lines(new ByteArrayInputStream("1\n\n{\"a\": }\n2".getBytes(StandardCharsets.UTF_8)));
+        var iterator = malformed.iterator();
+        assertEquals(1, iterator.next().as_long());
+        var exc = assertThrows(RuntimeException.class, iterator::next);
+        assertEquals("Invalid JSON on line 3!", exc.getMessage());
+    }
+
+    static class Record
+    {
+        private long id;
+        private String text;
+    }
+
+    @Test
+    void test_json_lines_in_parallel (@TempDir final Path directory) throws IOException
+    {
+        var input = new StringBuilder();
+        for (int i = 0; i < 10000; i++)
+            input.append(i % 7 == 0 ? "\n" : "").append("{\"id\": ").append(i).append(", \"text\": \"line ").append(i).append("\"}\n");
+        var file = directory.resolve("records.jsonl");
+        Files.writeString(file, input);
+
+        var executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            try (var lines = JsonParser.lines(file))
+            {
+                var records = lines.parallel(Typedef.wrap(Record.class), executor, 64, 4);
+                for (int i = 0; i < 10000; i++)
+                {
+                    var record = records.next();
+                    assertEquals(i, record.id);
+                    assertEquals("line " + i, record.text);
+                }
+                assertFalse(records.hasNext());
+            }
+            try (var lines = JsonParser.lines(file))
+            {
+                var values = lines.parallel(executor, 1000, 2);
+                int count = 0;
+                while (values.hasNext())
+                    assertEquals(count++, values.next().as_map().get("id").as_long());
+                assertEquals(10000, count);
+            }
+            var malformed = "1\n2\n[3,\n4\n";
+            try (var lines = JsonParser.lines(new ByteArrayInputStream(malformed.getBytes(StandardCharsets.UTF_8))))
+            {
+                var values = lines.parallel(executor, 2, 2);
+                assertEquals(1, values.next().as_long());
+                assertEquals(2, values.next().as_long());
+                var exc = assertThrows(RuntimeException.class, values::next);
+                assertEquals("Invalid JSON on line 3!", exc.getMessage());
+            }
+        } finally
+        {
+            executor.shutdown();
+        }
+    }
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2020 Devashish Jaiswal.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sweetjson;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SerializationTest {
+    private static String write (final Object object) {
+        var builder = new StringBuilder();
+        SweetJson.write(object, builder);
+        return builder.toString();
+    }
+
+    static class S1 {
+        private boolean z = true;
+        private byte b = 1;
+        private char c = 'A';
+        private short s = 3;
+        private int i = 4;
+        private long l = 5;
+        private float f = 0.1f;
+        private double d = 7.25;
+        private static int ignored_static = 1;
+        private transient int ignored_transient = 2;
+    }
+
+    @Test
+    void test_writing_primitive_fields () {
+        assertEquals("{\"z\":true,\"b\":1,\"c\":65,\"s\":3,\"i\":4,\"l\":5,\"f\":0.1,\"d\":7.25}", write(new S1()));
+    }
+
+    static class S2 {
+        static class IS2 {
+            private String message;
+        }
+        private IS2 inner;
+        private String missing;
+        private Integer boxed = 8;
+        private int[] ints = {1, 2};
+        private String[] strings = {"a", null};
+        private List<Object> list;
+        private Map<String, Integer> map;
+    }
+
+    @Test
+    void test_writing_nested_objects_and_containers () {
+        var object = new S2();
+        object.inner = new S2.IS2();
+        object.inner.message = "hi";
+        object.list = new ArrayList<>(List.of(1, "two", 3.5));
+        object.map = new LinkedHashMap<>();
+        object.map.put("key", 9);
+        String json = write(object);
+        assertEquals("{\"inner\":{\"message\":\"hi\"},\"boxed\":8,\"ints\":[1,2],\"strings\":[\"a\",null],"
+                + "\"list\":[1,\"two\",3.5],\"map\":{\"key\":9}}", json);
+    }
+
+    @Test
+    void test_escaping_strings () {
+        assertEquals("[\"q\\\"b\\\\n\\nt\\tc\\u0001\"]", write(new String[]{"q\"b\\n\nt\tc\u0001"}));
+        var bytes = new ByteArrayOutputStream();
+        SweetJson.write(new String[]{"\u00e9\u20ac\ud83d\ude00", "\ud800"}, bytes);
+        assertEquals("[\"\u00e9\u20ac\ud83d\ude00\",\"\\ud800\"]", bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    static class S3<T> {
+        private T value;
+        private List<T> values;
+    }
+
+    @Test
+    void test_round_trip_of_generic_model () {
+        SweetJson.register_binder(Typedef.wrap(List.class), (value, typedef, bag) -> {
+            var list = new ArrayList<>();
+            value.as_list().forEach(entry -> list.add(entry.bind_to(typedef.type_arg1())));
+            return list;
+        });
+        var object = new S3<Integer>();
+        object.value = 1;
+        object.values = List.of(2, 3);
+        var definition = Typedef.<S3<Integer>>builder().set_klass(cast(S3.class)).set_type_args(Integer.class).build();
+        var builder = new StringBuilder();
+        SweetJson.write(object, definition, builder);
+        assertEquals("{\"value\":1,\"values\":[2,3]}", builder.toString());
+        S3<Integer> copy = JsonParser.parse(builder.toString()).bind_to(definition);
+        assertEquals(1, copy.value);
+        assertEquals(3, copy.values.get(1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Class<T> cast (final Class<?> klass) {
+        return (Class<T>) klass;
+    }
+
+    static class S4 {
+        static class Point {
+            private int x;
+            private int y;
+        }
+        private Point point = new Point();
+    }
+
+    @Test
+    void test_custom_serializer () {
+        SweetJson.register_serializer(Typedef.wrap(S4.Point.class),
+                (value, definition, writer, bag) -> writer.value(value.x + "," + value.y));
+        assertEquals("{\"point\":\"0,0\"}", write(new S4()));
+    }
+
+    @Test
+    void test_writing_to_stream_across_buffer_boundaries () {
+        var strings = new String[5000];
+        for (int i = 0; i < strings.length; i++)
+            strings[i] = "value-" + i;
+        var bytes = new ByteArrayOutputStream();
+        SweetJson.write(strings, bytes);
+        var parsed = JsonParser.parse(bytes.toByteArray()).bind_to(String[].class);
+        assertEquals(5000, parsed.length);
+        assertEquals("value-4999", parsed[4999]);
+    }
+
+    @Test
+    void test_writer_rejects_malformed_sequences () {
+        assertThrows(RuntimeException.class, () -> new JsonWriter().begin_object().value(1));
+        assertThrows(RuntimeException.class, () -> new JsonWriter().begin_array().key("key"));
+        assertThrows(RuntimeException.class, () -> new JsonWriter().begin_array().end_object());
+        assertThrows(RuntimeException.class, () -> new JsonWriter().value(1).value(2));
+        assertThrows(RuntimeException.class, () -> new JsonWriter().value(Double.NaN));
+        assertEquals("{\"a\":[],\"b\":{}}", new JsonWriter().begin_object().key("a").begin_array().end_array()
+                .key("b").begin_object().end_object().end_object().to_string());
+    }
+
+    @Test
+    void test_number_formatting () {
+        var writer = new JsonWriter().begin_array();
+        writer.value(0L).value(-7L).value(1234567890123L).value(Long.MIN_VALUE).value(Long.MAX_VALUE);
+        writer.value(0.0).value(-0.0).value(2.0).value(-0.001).value(123.456).value(1e300).value(4.9e-324);
+        writer.value(0.3f).value(16777216f);
+        assertEquals("[0,-7,1234567890123,-9223372036854775808,9223372036854775807,"
+                + "0.0,-0.0,2.0,-0.001,123.456,1.0E300,4.9E-324,0.3,1.6777216E7]", writer.end_array().to_string());
+
+        var random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            double number = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(30) - 15);
+            String json = new JsonWriter().value(number).to_string();
+            assertEquals(number, Double.parseDouble(json), json);
+            float small = (float) number;
+            json = new JsonWriter().value(small).to_string();
+            assertEquals(small, Float.parseFloat(json), json);
+        }
+    }
+
+    @Test
+    void test_writing_to_channel () throws IOException {
+        var values = new Integer[3000];
+        Arrays.fill(values, 123456);
+        var bytes = new ByteArrayOutputStream();
+        try (var channel = Channels.newChannel(bytes)) {
+            SweetJson.write(values, channel);
+        }
+        assertEquals(3000, JsonParser.parse(bytes.toByteArray()).as_list().size());
+    }
+
+    @Test
+    void test_writing_json_value_trees () {
+        String data = "{\"a\":[1,2.5,-3,true,null,\"s\\\"\"],\"b\":{\"c\":{}}}";
+        assertEquals(data, write(JsonParser.parse(data)));
+        assertEquals(data, write(JsonParser.parse_lazy(data)));
+
+        var map = new LinkedHashMap<String, JsonValue>();
+        map.put("id", new JsonValue(42L));
+        map.put("tags", new JsonValue(List.of(new JsonValue("x"), new JsonValue(false))));
+        assertEquals("{\"id\":42,\"tags\":[\"x\",false]}", write(new JsonValue(map)));
+    }
+}